@@ -0,0 +1,122 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.cache.LookupIndexInitializer;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.service.UserServiceImpl;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Request throughput under the default logging configuration (DEBUG for the
+ * application, SQL echo on) against the {@code prod} profile (async
+ * appender, sampled key/value access lines). Console output goes to a
+ * temporary file, so both runs pay for real writes without flooding JMH.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private PrintStream originalOut;
+    private Path logFile;
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private UserServiceImpl userServiceImpl;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        private final SplittableRandom random = new SplittableRandom(42);
+
+        int next() {
+            return random.nextInt(ROWS);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        logFile = Files.createTempFile("logging-benchmark-" + profile, ".log");
+        System.setOut(new PrintStream(new FileOutputStream(logFile.toFile()), false));
+
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles(profile)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:logging;DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///logging?options=DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "user.warmup.enabled=false")
+                .run();
+
+        UserLookupBenchmark.seed(context.getBean(JdbcTemplate.class), ROWS);
+        context.getBean(LookupIndexInitializer.class).initialize();
+
+        // Include the servlet filters, so the prod run pays for its access log sampling
+        Filter[] filters = context.getBeansOfType(Filter.class).values().toArray(new Filter[0]);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(filters)
+                .build();
+        userServiceImpl = context.getBean(UserServiceImpl.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(originalOut);
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public MvcResult getUserByEmail(Keys keys) throws Exception {
+        return mockMvc.perform(get("/api/v1/users/{email}", "user" + keys.next() + "@example.com")).andReturn();
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> findUsersByName(Keys keys) {
+        return userServiceImpl.findUsersByName("User" + keys.next());
+    }
+}
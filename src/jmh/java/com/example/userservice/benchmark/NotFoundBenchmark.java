@@ -0,0 +1,199 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.exception.ErrorResponse;
+import com.example.userservice.exception.GlobalExceptionHandler;
+import com.example.userservice.exception.UserNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput of the 404 path on a single thread, i.e. how many misses one
+ * core can answer per second. {@code request} runs the full Spring MVC chain
+ * for an email the bloom filter rejects. The other benchmarks come in pairs,
+ * the current path against the one it replaced:
+ * <ul>
+ *   <li>{@code stacklessException} / {@code stackTraceException}: throwing
+ *       and catching the exception alone;</li>
+ *   <li>{@code handler} / {@code legacyHandler}: throwing it and building
+ *       the 404 response, where the old handler logged every miss at ERROR
+ *       and built the body through the Lombok builder.</li>
+ * </ul>
+ * Each pair throws from {@code depth} frames down, since filling in a stack
+ * trace costs more the deeper the caller; a request reaches the service
+ * through roughly a hundred.
+ *
+ * <p>Logging uses the application's defaults, so DEBUG miss logs are
+ * disabled and ERROR ones are written. Console output goes to a temporary
+ * file, so ERROR logging pays for real writes without flooding JMH.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx1g")
+@Threads(1)
+@State(Scope.Benchmark)
+public class NotFoundBenchmark {
+
+    // Same logger as the handler, so the old ERROR line goes through the same appenders
+    private static final Logger legacyLog = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private PrintStream originalOut;
+    private Path logFile;
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest servletRequest;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @State(Scope.Thread)
+    public static class Stack {
+        @Param({"10", "100"})
+        public int depth;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        logFile = Files.createTempFile("not-found-benchmark", ".log");
+        System.setOut(new PrintStream(new FileOutputStream(logFile.toFile()), false));
+
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:notfound;DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///notfound?options=DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "user.warmup.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.userservice=INFO")
+                .run();
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        handler = context.getBean(GlobalExceptionHandler.class);
+        servletRequest = new MockHttpServletRequest("GET", "/api/v1/users/missing@example.com");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(originalOut);
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public MvcResult request() throws Exception {
+        return mockMvc.perform(get("/api/v1/users/{email}", missingEmail())).andReturn();
+    }
+
+    @Benchmark
+    public RuntimeException stacklessException(Stack stack) {
+        try {
+            return throwFrom(stack.depth, missingEmail(), UserNotFoundException::new);
+        } catch (UserNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public RuntimeException stackTraceException(Stack stack) {
+        try {
+            return throwFrom(stack.depth, missingEmail(), StackTraceNotFoundException::new);
+        } catch (StackTraceNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> handler(Stack stack) {
+        try {
+            return throwFrom(stack.depth, missingEmail(), UserNotFoundException::new);
+        } catch (UserNotFoundException e) {
+            return handler.handleUserNotFoundException(e, servletRequest);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> legacyHandler(Stack stack) {
+        try {
+            return throwFrom(stack.depth, missingEmail(), StackTraceNotFoundException::new);
+        } catch (StackTraceNotFoundException e) {
+            return handleLegacy(e, servletRequest);
+        }
+    }
+
+    private String missingEmail() {
+        return "missing" + random.nextInt(1_000_000) + "@example.com";
+    }
+
+    // Throws the exception built by the factory from depth frames below the caller
+    private static <T> T throwFrom(int depth, String email, Function<String, RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.apply("User not found with email: " + email);
+        }
+        return throwFrom(depth - 1, email, exception);
+    }
+
+    // GlobalExceptionHandler.handleUserNotFoundException before the 404 path was made cheap
+    private static ResponseEntity<ErrorResponse> handleLegacy(RuntimeException ex, MockHttpServletRequest request) {
+        legacyLog.error("UserNotFoundException: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    // UserNotFoundException as it was, with a stack trace
+    private static final class StackTraceNotFoundException extends RuntimeException {
+        private StackTraceNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.cache.LookupIndexInitializer;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end lookup and search paths against an H2 database seeded with
+ * {@code rows} users. {@code cacheSize=0} disables the email cache so every
+ * hit goes to the database.
+ *
+ * <p>Larger tables can be measured with e.g. {@code -p rows=10000,10000000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UserLookupBenchmark {
+
+    private static final String[] SURNAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis"
+    };
+    private static final int SEED_BATCH = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"0", "10000"})
+    public long cacheSize;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserServiceImpl userServiceImpl;
+    private UserRepository userRepository;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        private final SplittableRandom random = new SplittableRandom(42);
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///benchmark?options=DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "user.warmup.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.userservice=WARN",
+                        "user.cache.email.maximum-size=" + cacheSize,
+                        "user.bloom.email.expected-insertions=" + Math.max(rows, 1000))
+                .run();
+
+        seed(context.getBean(JdbcTemplate.class), rows);
+        // Reload the in-memory indexes now that the table has data
+        context.getBean(LookupIndexInitializer.class).initialize();
+
+        userService = context.getBean("userService", UserService.class);
+        userServiceImpl = context.getBean(UserServiceImpl.class);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User getUserByEmail(Keys keys) {
+        return userService.getUserByEmail(email(keys.next(rows)));
+    }
+
+    @Benchmark
+    public Object getUserByEmailMiss(Keys keys) {
+        try {
+            return userService.getUserByEmail("missing" + keys.next(rows) + "@example.org");
+        } catch (UserNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Optional<User> findByEmailIgnoreCase(Keys keys) {
+        return userRepository.findByEmailIgnoreCase(email(keys.next(rows)).toUpperCase());
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> findUsersByName(Keys keys) {
+        return userServiceImpl.findUsersByName("user" + keys.next(rows));
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        String sql = "INSERT INTO users (email, email_normalized, name, phone, city, country) VALUES (?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < rows; i++) {
+            String email = email(i);
+            batch.add(new Object[]{email, email, "User" + i + " " + SURNAMES[i % SURNAMES.length],
+                    "+1-555-" + i, "New York", "USA"});
+            if (batch.size() == SEED_BATCH || i == rows - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+}
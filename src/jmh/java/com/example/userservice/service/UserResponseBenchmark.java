@@ -0,0 +1,115 @@
+package com.example.userservice.service;
+
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.hotkey.HotKeyProperties;
+import com.example.userservice.hotkey.HotKeyTracker;
+import com.example.userservice.index.NameTrigramIndex;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of mapping a user entity to {@link UserResponseDTO} and of serializing
+ * the DTO with a Jackson mapper configured like Spring Boot's. Each call takes
+ * the next of {@value #USERS} users with distinct names, contact details and
+ * timestamps, as loaded by Hibernate, so the timestamp serializers are part of
+ * the measurement and no single value stays hot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserResponseBenchmark {
+
+    private static final int USERS = 1024;
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "María José", "Zoë", "Oluwaseun", "Wei", "Anne-Sophie", "Mohammed"
+    };
+    private static final String[] SURNAMES = {
+            "Smith", "Johnson", "García Márquez", "O'Brien", "Nguyen", "Müller", "Kowalski", "Davis"
+    };
+    private static final String[] CITIES = {"New York", "London", "São Paulo", "Berlin", "Lagos", "Shanghai"};
+    private static final String[] COUNTRIES = {"USA", "United Kingdom", "Brazil", "Germany", "Nigeria", "China"};
+
+    private UserServiceImpl userService;
+    private User[] users;
+    private UserResponseDTO[] dtos;
+    private ObjectWriter writer;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        // The store is not touched by the mapping; the rest is wired as in the application
+        userService = new UserServiceImpl(mock(UserStore.class), new NameTrigramIndex(), objectMapper,
+                new SingleFlight<>("id", Duration.ofSeconds(2)), new HotKeyTracker<>("id", new HotKeyProperties()),
+                new SimpleMeterRegistry());
+        writer = objectMapper.writerFor(UserResponseDTO.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.now();
+        users = new User[USERS];
+        dtos = new UserResponseDTO[USERS];
+        for (int i = 0; i < USERS; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+            int place = random.nextInt(CITIES.length);
+            LocalDateTime createdAt = now.minusSeconds(random.nextLong(3 * 365 * 24 * 3600L))
+                    .withNano(random.nextInt(1_000_000) * 1000);
+            users[i] = User.builder()
+                    .id(1_000_000L + random.nextLong(9_000_000L))
+                    .email(first.toLowerCase().replaceAll("[^a-z]", "") + "." + i + "@example.com")
+                    .name(first + " " + surname)
+                    .phone("+1-555-" + String.format("%04d", random.nextInt(10_000)))
+                    .address(random.nextInt(1, 9999) + " Main Street")
+                    .city(CITIES[place])
+                    .country(COUNTRIES[place])
+                    .version(random.nextLong(20))
+                    .createdAt(createdAt)
+                    // About one user in five has never been updated
+                    .updatedAt(random.nextInt(5) == 0 ? createdAt
+                            : createdAt.plusSeconds(random.nextLong(365 * 24 * 3600L)))
+                    .build();
+            dtos[i] = userService.convertToDTO(users[i]);
+        }
+    }
+
+    @Benchmark
+    public UserResponseDTO convertToDTO() {
+        return userService.convertToDTO(users[nextIndex()]);
+    }
+
+    @Benchmark
+    public byte[] serializeDTO() throws JsonProcessingException {
+        return writer.writeValueAsBytes(dtos[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (USERS - 1);
+        return next;
+    }
+}
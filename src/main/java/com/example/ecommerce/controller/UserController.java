@@ -1,29 +1,89 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.dto.CursorPage;
+import com.example.ecommerce.dto.UserBatchResult;
 import com.example.ecommerce.dto.UserRequest;
+import com.example.ecommerce.dto.UserUpdateRequest;
+import com.example.ecommerce.dto.UserVersion;
 import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.UserChangeFeed;
 import com.example.ecommerce.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int MAX_BATCH_ITEMS = 50_000;
+
     private final UserService service;
+    private final UserChangeFeed changeFeed;
 
-    public UserController(UserService service) {
+    public UserController(UserService service, UserChangeFeed changeFeed) {
         this.service = service;
+        this.changeFeed = changeFeed;
     }
 
     @GetMapping
-    public List<User> getAllUsers() {
-        return service.getAllUsers();
+    public CursorPage<User> getAllUsers(@RequestParam(required = false) String after,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        Long afterId = null;
+        if (after != null) {
+            try {
+                afterId = CursorPage.decodeCursor(after);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+        return service.getAllUsers(afterId, limit);
+    }
+
+    // Streams every user as NDJSON, pulling rows only as fast as the client reads them
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<User> streamAllUsers() {
+        return service.streamAllUsers();
+    }
+
+    // Server-sent events of every change after the given sequence number, then live changes;
+    // a reconnecting EventSource resumes from its Last-Event-ID
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
     }
 
+    // Pollers sending If-None-Match / If-Modified-Since get a 304 from the version alone;
+    // the user is loaded and serialized only when it has changed. Other requests skip the
+    // version lookup and take their validators from the loaded user. A missing user is still
+    // answered with an empty 200, without validators
     @GetMapping("/{id}")
-    public User getUserById(@PathVariable Long id) {
-        return service.getUserById(id);
+    public ResponseEntity<User> getUserById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            UserVersion version = service.getUserVersion(id);
+            if (version != null && request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+                return null;
+            }
+        }
+        User user = service.getUserById(id);
+        if (user == null) {
+            return ResponseEntity.ok().build();
+        }
+        UserVersion version = UserVersion.of(user);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.eTag());
+        if (version.getUpdatedAt() != null) {
+            response.lastModified(version.getUpdatedAt());
+        }
+        return response.body(user);
     }
 
     @PostMapping
@@ -31,6 +91,24 @@ public class UserController {
         return service.createUser(request);
     }
 
+    @PostMapping("/batch")
+    public UserBatchResult createUsers(@RequestBody List<UserRequest> requests) {
+        if (requests.size() > MAX_BATCH_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_BATCH_ITEMS + " users per batch");
+        }
+        return service.createUsers(requests);
+    }
+
+    @PutMapping("/batch")
+    public UserBatchResult updateUsers(@RequestBody List<UserUpdateRequest> requests) {
+        if (requests.size() > MAX_BATCH_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_BATCH_ITEMS + " users per batch");
+        }
+        return service.updateUsers(requests);
+    }
+
     @PutMapping("/{id}")
     public User updateUser(@PathVariable Long id, @RequestBody UserRequest request) {
         return service.updateUser(id, request);
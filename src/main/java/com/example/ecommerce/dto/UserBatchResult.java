@@ -0,0 +1,36 @@
+package com.example.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create: how many users were written and which request
+ * items failed, identified by their position in the submitted list.
+ */
+public class UserBatchResult {
+    private final int requested;
+    private final int created;
+    private final List<ItemError> errors;
+
+    public UserBatchResult(int requested, int created, List<ItemError> errors) {
+        this.requested = requested;
+        this.created = created;
+        this.errors = errors;
+    }
+
+    public int getRequested() { return requested; }
+    public int getCreated() { return created; }
+    public List<ItemError> getErrors() { return errors; }
+
+    public static class ItemError {
+        private final int index;
+        private final String message;
+
+        public ItemError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+        public String getMessage() { return message; }
+    }
+}
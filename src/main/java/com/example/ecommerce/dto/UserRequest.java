@@ -8,6 +8,13 @@ public class UserRequest {
 
     public UserRequest() {}
 
+    public UserRequest(String name, String email, String role, boolean active) {
+        this.name = name;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+    }
+
     public String getName() { return name; }
     public String getEmail() { return email; }
     public String getRole() { return role; }
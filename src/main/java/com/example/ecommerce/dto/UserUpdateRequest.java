@@ -0,0 +1,15 @@
+package com.example.ecommerce.dto;
+
+// One item of a bulk update: the user's ID and its new state
+public class UserUpdateRequest extends UserRequest {
+    private Long id;
+
+    public UserUpdateRequest() {}
+
+    public UserUpdateRequest(Long id, String name, String email, String role, boolean active) {
+        super(name, email, role, active);
+        this.id = id;
+    }
+
+    public Long getId() { return id; }
+}
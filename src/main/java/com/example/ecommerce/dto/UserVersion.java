@@ -0,0 +1,39 @@
+package com.example.ecommerce.dto;
+
+import com.example.ecommerce.model.User;
+
+import java.time.Instant;
+
+/**
+ * Version of a user, enough to answer conditional GETs without loading or
+ * serializing the user itself.
+ */
+public class UserVersion {
+    private final Long id;
+    private final Long version;
+    private final Instant updatedAt;
+
+    public UserVersion(Long id, Long version, Instant updatedAt) {
+        this.id = id;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserVersion of(User user) {
+        return new UserVersion(user.getId(), user.getVersion(), user.getUpdatedAt());
+    }
+
+    public Long getId() { return id; }
+    public Long getVersion() { return version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    // Strong tag; the ID keeps a recreated user from matching an old copy
+    public String eTag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // -1 when the update time is unknown, which disables If-Modified-Since
+    public long lastModifiedMillis() {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+}
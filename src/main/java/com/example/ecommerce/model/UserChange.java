@@ -0,0 +1,65 @@
+package com.example.ecommerce.model;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Outbox row written in the same transaction as the user change it describes
+@Entity
+@Table(name = "user_changes", indexes = @Index(name = "idx_user_changes_user_id", columnList = "user_id"))
+public class UserChange {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_changes_seq")
+    @SequenceGenerator(name = "user_changes_seq", sequenceName = "user_changes_seq", allocationSize = 100)
+    private Long seq;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // State after the change; null for deletes
+    private String name;
+    private String email;
+    private String role;
+    private Boolean active;
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    protected UserChange() {}
+
+    public UserChange(Type type, User user) {
+        this.type = type;
+        this.userId = user.getId();
+        this.name = user.getName();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.active = user.isActive();
+        this.version = user.getVersion();
+        this.changedAt = Instant.now();
+    }
+
+    public static UserChange deleted(Long userId) {
+        UserChange change = new UserChange();
+        change.type = Type.DELETED;
+        change.userId = userId;
+        change.changedAt = Instant.now();
+        return change;
+    }
+
+    public Long getSeq() { return seq; }
+    public Long getUserId() { return userId; }
+    public Type getType() { return type; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public Boolean getActive() { return active; }
+    public Long getVersion() { return version; }
+    public Instant getChangedAt() { return changedAt; }
+}
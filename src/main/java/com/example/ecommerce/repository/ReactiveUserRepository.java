@@ -0,0 +1,28 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.User;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Read-only R2DBC queries; writes stay on the JPA UserRepository
+@Repository
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<User> findAll() {
+        return databaseClient.sql("SELECT id, name, email, role, active FROM users ORDER BY id")
+                .map(row -> new User(
+                        row.get("id", Long.class),
+                        row.get("name", String.class),
+                        row.get("email", String.class),
+                        row.get("role", String.class),
+                        Boolean.TRUE.equals(row.get("active", Boolean.class))))
+                .all();
+    }
+}
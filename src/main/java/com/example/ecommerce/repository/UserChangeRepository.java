@@ -0,0 +1,34 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.UserChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    List<UserChange> findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(Long after, Long upTo, Pageable pageable);
+
+    // Compaction: keeps only the latest change of each user
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserChange c WHERE EXISTS "
+            + "(SELECT 1 FROM UserChange n WHERE n.userId = c.userId AND n.seq > c.seq)")
+    int deleteSuperseded();
+
+    // Compaction: drops delete tombstones recorded before the cutoff
+    default int deleteTombstonesBefore(Instant cutoff) {
+        return deleteByTypeBefore(UserChange.Type.DELETED, cutoff);
+    }
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserChange c WHERE c.type = :type AND c.changedAt < :cutoff")
+    int deleteByTypeBefore(@Param("type") UserChange.Type type, @Param("cutoff") Instant cutoff);
+}
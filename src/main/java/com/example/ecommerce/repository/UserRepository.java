@@ -1,7 +1,34 @@
 package com.example.ecommerce.repository;
 
+import com.example.ecommerce.dto.UserVersion;
 import com.example.ecommerce.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // Query cache region of findVersionById, configured in ehcache.xml
+    String VERSION_QUERY_REGION = "user-query-version";
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Most recently created or updated users first, for the startup warm-up
+    @Query("SELECT u FROM User u ORDER BY u.updatedAt DESC NULLS LAST, u.id DESC")
+    List<User> findRecentlyUpdated(Pageable pageable);
+
+    // Version-only lookup for conditional GETs, served from the query cache until users changes
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = VERSION_QUERY_REGION)
+    })
+    @Query("SELECT new com.example.ecommerce.dto.UserVersion(u.id, u.version, u.updatedAt) FROM User u WHERE u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
 }
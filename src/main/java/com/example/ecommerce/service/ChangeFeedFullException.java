@@ -0,0 +1,13 @@
+package com.example.ecommerce.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The change feed already has its maximum number of subscribers; the client should retry later
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ChangeFeedFullException extends RuntimeException {
+
+    public ChangeFeedFullException(String message) {
+        super(message);
+    }
+}
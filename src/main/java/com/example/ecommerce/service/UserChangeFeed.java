@@ -0,0 +1,331 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.model.UserChange;
+import com.example.ecommerce.repository.UserChangeRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change log of users, kept as an outbox table written in the same
+ * transaction as each create, update and delete, and streamed to SSE
+ * subscribers in sequence order as the transactions commit.
+ *
+ * <p>Sequence numbers are handed out before commit, so a transaction can
+ * commit after one holding a higher number. Changes are therefore only
+ * delivered below the lowest sequence number still in flight; a consumer
+ * that resumes after the last number it saw never skips a change.
+ *
+ * <p>That guarantee requires a single writer instance. The in-flight set
+ * lives in this process and each instance takes its own block of sequence
+ * numbers, so one instance could deliver another's higher number while a
+ * lower one of its own is still open, and the consumer's cursor would pass
+ * it for good. Subscribers would also only see another instance's commits
+ * on this instance's next dispatch. With several instances, route every
+ * user write to one of them.
+ *
+ * <p>One dispatcher thread reads changes into a bounded buffer per
+ * subscriber, never reading more than the buffer has room for; each
+ * subscriber's buffer is drained by its own sender task, so a slow client
+ * holds up only itself. A subscriber whose buffer stays full with nothing
+ * sent for the stall timeout is completed and can reconnect from its
+ * Last-Event-ID. Subscribers above the configured maximum are rejected, and
+ * the sender pool has one thread per allowed subscriber.
+ *
+ * <p>Compaction keeps each user's latest change, and drops delete
+ * tombstones once they are older than the retention window. A consumer that
+ * resumes after a longer absence can miss deletes and should replay from 0.
+ */
+@Component
+public class UserChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeFeed.class);
+
+    private final UserChangeRepository repository;
+    private final int batchSize;
+    private final long emitterTimeoutMillis;
+    private final int bufferSize;
+    private final long stallTimeoutNanos;
+    private final int maxSubscribers;
+    private final Duration tombstoneRetention;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Held while a sequence number is allocated and registered, so the watermark never passes one in between
+    private final Object allocation = new Object();
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Reads changes into the subscribers' buffers; never sends, so it never blocks on a client
+    private final ExecutorService dispatcher;
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    // Runs one drain task per subscriber at a time, so each subscriber sees its changes in order
+    private final ExecutorService senders;
+
+    public UserChangeFeed(UserChangeRepository repository,
+                          @Value("${ecommerce.users.batch-size:100}") int batchSize,
+                          @Value("${ecommerce.users.changes.emitter-timeout:30m}") Duration emitterTimeout,
+                          @Value("${ecommerce.users.changes.subscriber-buffer:1000}") int bufferSize,
+                          @Value("${ecommerce.users.changes.stall-timeout:30s}") Duration stallTimeout,
+                          @Value("${ecommerce.users.changes.max-subscribers:200}") int maxSubscribers,
+                          @Value("${ecommerce.users.changes.tombstone-retention:7d}") Duration tombstoneRetention) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.stallTimeoutNanos = stallTimeout.toNanos();
+        this.maxSubscribers = maxSubscribers;
+        this.tombstoneRetention = tombstoneRetention;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        // A subscriber has at most one drain task at a time, so every subscriber can be mid-send at once
+        ThreadPoolExecutor senderPool = new ThreadPoolExecutor(maxSubscribers, maxSubscribers,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "user-change-feed-send-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        senderPool.allowCoreThreadTimeOut(true);
+        this.senders = senderPool;
+    }
+
+    /**
+     * Records a created or updated user. Must run inside the transaction that
+     * writes the user, so the change commits or rolls back with it.
+     */
+    public void record(UserChange.Type type, User user) {
+        append(new UserChange(type, user));
+    }
+
+    /**
+     * Records a deleted user, inside the transaction that deletes it.
+     */
+    public void recordDeleted(Long userId) {
+        append(UserChange.deleted(userId));
+    }
+
+    private void append(UserChange change) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("User changes must be recorded in the transaction that makes them");
+        }
+        Long seq;
+        synchronized (allocation) {
+            entityManager.persist(change);
+            seq = change.getSeq();
+            inFlight.add(seq);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                inFlight.remove(seq);
+                // A rollback can also raise the watermark and release later commits
+                requestDispatch();
+            }
+        });
+    }
+
+    /**
+     * Streams changes with a sequence number above {@code since}, oldest first,
+     * then new changes as they commit. Each event carries its sequence number as
+     * its SSE id and the change type as its name.
+     *
+     * @throws ChangeFeedFullException if the feed already has its maximum number of subscribers
+     */
+    public SseEmitter subscribe(long since) {
+        Subscriber subscriber;
+        // Held so concurrent subscribes cannot both take the last place
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new ChangeFeedFullException("User change feed has " + maxSubscribers + " subscribers");
+            }
+            SseEmitter emitter = newEmitter(emitterTimeoutMillis);
+            subscriber = new Subscriber(emitter, since, bufferSize);
+            emitter.onCompletion(() -> subscribers.remove(subscriber));
+            // Ends the stream; EventSource clients reconnect and resume from Last-Event-ID
+            emitter.onTimeout(emitter::complete);
+            emitter.onError(e -> subscribers.remove(subscriber));
+            subscribers.add(subscriber);
+        }
+        requestDispatch();
+        return subscriber.emitter;
+    }
+
+    // Superseded changes are dropped; a consumer replaying from 0 still sees every user's latest state.
+    // Delete tombstones are dropped after the retention window, so deleted users do not stay in the log forever
+    @Scheduled(fixedDelayString = "${ecommerce.users.changes.compaction-interval:600000}")
+    public void compact() {
+        int removed = repository.deleteSuperseded();
+        int expired = repository.deleteTombstonesBefore(Instant.now().minus(tombstoneRetention));
+        if (removed > 0 || expired > 0) {
+            log.debug("Compacted {} superseded user changes and {} expired delete tombstones", removed, expired);
+        }
+    }
+
+    // Keeps idle connections open through proxies, detects clients that have gone away
+    // and completes subscribers that have stopped reading
+    @Scheduled(fixedDelayString = "${ecommerce.users.changes.heartbeat-interval:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.buffer.remainingCapacity() == 0 && now - subscriber.lastProgress > stallTimeoutNanos) {
+                log.info("Completing a user change subscriber that has stopped reading");
+                subscribers.remove(subscriber);
+                subscriber.buffer.clear();
+                // Completing waits for the blocked send, so do it off the scheduler thread
+                senders.execute(subscriber.emitter::complete);
+                continue;
+            }
+            // A full buffer already has data on its way, which serves as well
+            if (subscriber.buffer.offer(SseEmitter.event().comment("heartbeat"))) {
+                scheduleSend(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Overridden in tests to capture what is sent
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private long watermark() {
+        synchronized (allocation) {
+            Long oldest = inFlight.ceiling(Long.MIN_VALUE);
+            return oldest == null ? Long.MAX_VALUE : oldest - 1;
+        }
+    }
+
+    // Coalesces bursts of commits into one pass over the subscribers
+    private void requestDispatch() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchPending.set(false);
+                dispatch();
+            });
+        }
+    }
+
+    private void dispatch() {
+        long upTo = watermark();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.behind = !readInto(subscriber, upTo);
+            } catch (DataAccessException e) {
+                // The subscriber keeps its cursor and catches up on the next commit
+                log.warn("Failed to read user changes after {}", subscriber.cursor, e);
+            }
+            scheduleSend(subscriber);
+        }
+    }
+
+    // Returns false if the buffer filled up before the subscriber caught up with upTo
+    private boolean readInto(Subscriber subscriber, long upTo) {
+        int room;
+        while ((room = subscriber.buffer.remainingCapacity()) > 0) {
+            int limit = Math.min(batchSize, room);
+            List<UserChange> changes = repository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+                    subscriber.cursor, upTo, PageRequest.of(0, limit));
+            for (UserChange change : changes) {
+                // Only this thread reads into the buffer, but a heartbeat may take the last slot
+                if (!subscriber.buffer.offer(SseEmitter.event()
+                        .id(String.valueOf(change.getSeq()))
+                        .name(change.getType().name())
+                        .data(change, MediaType.APPLICATION_JSON))) {
+                    return false;
+                }
+                subscriber.cursor = change.getSeq();
+            }
+            if (changes.size() < limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if (!subscriber.buffer.isEmpty() && subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(event);
+                subscriber.lastProgress = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared
+        scheduleSend(subscriber);
+        if (subscriber.behind) {
+            // The dispatcher stopped reading for lack of room; let it catch up
+            requestDispatch();
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(e);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Last change read into the buffer; only touched by the dispatcher thread
+        private long cursor;
+        private volatile boolean behind;
+        private volatile long lastProgress = System.nanoTime();
+
+        private Subscriber(SseEmitter emitter, long cursor, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.cursor = cursor;
+        }
+    }
+}
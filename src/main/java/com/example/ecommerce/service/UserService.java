@@ -1,13 +1,22 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.dto.CursorPage;
+import com.example.ecommerce.dto.UserBatchResult;
 import com.example.ecommerce.dto.UserRequest;
+import com.example.ecommerce.dto.UserUpdateRequest;
+import com.example.ecommerce.dto.UserVersion;
 import com.example.ecommerce.model.User;
+import reactor.core.publisher.Flux;
 import java.util.List;
 
 public interface UserService {
-    List<User> getAllUsers();
+    CursorPage<User> getAllUsers(Long afterId, int limit);
+    Flux<User> streamAllUsers();
     User getUserById(Long id);
+    UserVersion getUserVersion(Long id);
     User createUser(UserRequest request);
+    UserBatchResult createUsers(List<UserRequest> requests);
+    UserBatchResult updateUsers(List<UserUpdateRequest> requests);
     User updateUser(Long id, UserRequest request);
     boolean deleteUser(Long id);
 }
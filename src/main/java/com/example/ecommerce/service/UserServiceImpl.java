@@ -1,53 +1,341 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.dto.CursorPage;
+import com.example.ecommerce.dto.UserBatchResult;
 import com.example.ecommerce.dto.UserRequest;
+import com.example.ecommerce.dto.UserUpdateRequest;
+import com.example.ecommerce.dto.UserVersion;
 import com.example.ecommerce.model.User;
+import com.example.ecommerce.model.UserChange;
+import com.example.ecommerce.repository.ReactiveUserRepository;
 import com.example.ecommerce.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    // Latency of each CRUD method, tagged with class and method
+    private static final String SERVICE_TIMER = "ecommerce.user.service";
+
     private final UserRepository repository;
+    private final ReactiveUserRepository reactiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final UserChangeFeed changeFeed;
+    private final DistributionSummary pageResults;
+    // Null unless ecommerce.users.write-behind.enabled is set
+    private final UserWriteBehindQueue writeBehind;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public UserServiceImpl(UserRepository repository) {
+    public UserServiceImpl(UserRepository repository,
+                           ReactiveUserRepository reactiveRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${ecommerce.users.batch-size:100}") int batchSize,
+                           UserChangeFeed changeFeed,
+                           ObjectProvider<UserWriteBehindQueue> writeBehind,
+                           MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.reactiveRepository = reactiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.changeFeed = changeFeed;
+        this.pageResults = DistributionSummary.builder("ecommerce.user.results.size")
+                .tag("method", "getAllUsers")
+                .baseUnit("users")
+                .register(meterRegistry);
+        this.writeBehind = writeBehind.getIfAvailable();
     }
 
-    public List<User> getAllUsers() {
-        return repository.findAll();
+    @Timed(SERVICE_TIMER)
+    public CursorPage<User> getAllUsers(Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page follows
+        List<User> users = repository.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, PageRequest.of(0, pageSize + 1));
+        if (writeBehind != null) {
+            users.replaceAll(user -> writeBehind.pending(user.getId()).orElse(user));
+        }
+        if (users.size() <= pageSize) {
+            pageResults.record(users.size());
+            return new CursorPage<>(users, null);
+        }
+        List<User> page = users.subList(0, pageSize);
+        pageResults.record(pageSize);
+        return new CursorPage<>(page, CursorPage.encodeCursor(page.get(pageSize - 1).getId()));
     }
 
+    public Flux<User> streamAllUsers() {
+        return reactiveRepository.findAll();
+    }
+
+    @Timed(SERVICE_TIMER)
     public User getUserById(Long id) {
+        if (writeBehind != null) {
+            User pending = writeBehind.pending(id).orElse(null);
+            if (pending != null) return pending;
+        }
         return repository.findById(id).orElse(null);
     }
 
+    @Timed(SERVICE_TIMER)
+    public UserVersion getUserVersion(Long id) {
+        if (writeBehind != null) {
+            User pending = writeBehind.pending(id).orElse(null);
+            if (pending != null) return UserVersion.of(pending);
+        }
+        return repository.findVersionById(id).orElse(null);
+    }
+
+    @Timed(SERVICE_TIMER)
     public User createUser(UserRequest request) {
-        User user = new User(
-                request.getName(),
-                request.getEmail(),
-                request.getRole(),
-                request.isActive()
-        );
-        return repository.save(user);
+        return transactionTemplate.execute(status -> {
+            User user = repository.save(toUser(request));
+            changeFeed.record(UserChange.Type.CREATED, user);
+            return user;
+        });
+    }
+
+    /**
+     * Inserts users in chunks of {@code ecommerce.users.batch-size}, one transaction
+     * and one JDBC batch per chunk. If a chunk fails, its items are retried one by
+     * one so that only the offending items are reported.
+     */
+    @Timed(SERVICE_TIMER)
+    public UserBatchResult createUsers(List<UserRequest> requests) {
+        List<UserBatchResult.ItemError> errors = new ArrayList<>();
+        int created = 0;
+
+        List<Integer> chunk = new ArrayList<>(batchSize);
+        for (int i = 0; i < requests.size(); i++) {
+            String problem = validate(requests.get(i));
+            if (problem != null) {
+                errors.add(new UserBatchResult.ItemError(i, problem));
+                continue;
+            }
+            chunk.add(i);
+            if (chunk.size() == batchSize) {
+                created += insertChunk(requests, chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += insertChunk(requests, chunk, errors);
+        }
+
+        errors.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return new UserBatchResult(requests.size(), created, errors);
+    }
+
+    private int insertChunk(List<UserRequest> requests, List<Integer> indexes,
+                            List<UserBatchResult.ItemError> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Integer index : indexes) {
+                    persist(toUser(requests.get(index)));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return indexes.size();
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            int created = 0;
+            for (Integer index : indexes) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(toUser(requests.get(index))));
+                    created++;
+                } catch (DataAccessException | PersistenceException | TransactionException itemFailure) {
+                    errors.add(new UserBatchResult.ItemError(index, rootMessage(itemFailure)));
+                }
+            }
+            return created;
+        }
+    }
+
+    /**
+     * Updates users in chunks of {@code ecommerce.users.batch-size}: one transaction per
+     * chunk, loading the chunk with a single IN query and writing it as one JDBC batch.
+     * Failed chunks are retried item by item, as in {@link #createUsers}. With write-behind
+     * enabled each item is queued like a single update instead.
+     */
+    @Timed(SERVICE_TIMER)
+    public UserBatchResult updateUsers(List<UserUpdateRequest> requests) {
+        List<UserBatchResult.ItemError> errors = new ArrayList<>();
+        int updated = 0;
+
+        List<Integer> chunk = new ArrayList<>(batchSize);
+        for (int i = 0; i < requests.size(); i++) {
+            UserUpdateRequest request = requests.get(i);
+            String problem = request != null && request.getId() == null ? "id is required" : validate(request);
+            if (problem != null) {
+                errors.add(new UserBatchResult.ItemError(i, problem));
+                continue;
+            }
+            if (writeBehind != null) {
+                updated += queueUpdate(request, i, errors);
+                continue;
+            }
+            chunk.add(i);
+            if (chunk.size() == batchSize) {
+                updated += updateChunk(requests, chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            updated += updateChunk(requests, chunk, errors);
+        }
+
+        errors.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return new UserBatchResult(requests.size(), updated, errors);
+    }
+
+    private int queueUpdate(UserUpdateRequest request, int index, List<UserBatchResult.ItemError> errors) {
+        try {
+            if (updateUser(request.getId(), request) != null) return 1;
+            errors.add(new UserBatchResult.ItemError(index, "user not found"));
+        } catch (WriteBehindUnavailableException e) {
+            errors.add(new UserBatchResult.ItemError(index, e.getMessage()));
+        }
+        return 0;
+    }
+
+    private int updateChunk(List<UserUpdateRequest> requests, List<Integer> indexes,
+                            List<UserBatchResult.ItemError> errors) {
+        List<UserBatchResult.ItemError> missing = new ArrayList<>();
+        try {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<Long> ids = indexes.stream().map(index -> requests.get(index).getId()).toList();
+                Map<Long, User> users = repository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+                List<User> changed = new ArrayList<>(indexes.size());
+                for (Integer index : indexes) {
+                    UserUpdateRequest request = requests.get(index);
+                    User user = users.get(request.getId());
+                    if (user == null) {
+                        missing.add(new UserBatchResult.ItemError(index, "user not found"));
+                        continue;
+                    }
+                    apply(user, request);
+                    changed.add(user);
+                }
+                // Flush first so the recorded changes carry the new versions
+                entityManager.flush();
+                changed.forEach(user -> changeFeed.record(UserChange.Type.UPDATED, user));
+                entityManager.flush();
+                entityManager.clear();
+                return changed.size();
+            });
+            errors.addAll(missing);
+            return updated == null ? 0 : updated;
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            int updated = 0;
+            for (Integer index : indexes) {
+                UserUpdateRequest request = requests.get(index);
+                try {
+                    if (updateOne(request.getId(), request) != null) {
+                        updated++;
+                    } else {
+                        errors.add(new UserBatchResult.ItemError(index, "user not found"));
+                    }
+                } catch (DataAccessException | PersistenceException | TransactionException itemFailure) {
+                    errors.add(new UserBatchResult.ItemError(index, rootMessage(itemFailure)));
+                }
+            }
+            return updated;
+        }
+    }
+
+    private void persist(User user) {
+        entityManager.persist(user);
+        changeFeed.record(UserChange.Type.CREATED, user);
+    }
+
+    private static String validate(UserRequest request) {
+        if (request == null) return "request item is null";
+        if (request.getName() == null || request.getName().isBlank()) return "name is required";
+        if (request.getEmail() == null || request.getEmail().isBlank()) return "email is required";
+        return null;
+    }
+
+    private static User toUser(UserRequest request) {
+        return new User(request.getName(), request.getEmail(), request.getRole(), request.isActive());
     }
 
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    /**
+     * With write-behind enabled the update is queued rather than written here;
+     * it is visible to reads at once and reaches the database with the next batch.
+     */
+    @Timed(SERVICE_TIMER)
     public User updateUser(Long id, UserRequest request) {
-        User user = repository.findById(id).orElse(null);
-        if (user == null) return null;
+        if (writeBehind != null) {
+            User user = new User(id, request.getName(), request.getEmail(), request.getRole(), request.isActive());
+            // The stored version is usually answered by the second-level cache
+            if (!writeBehind.enqueue(user, userId -> repository.findById(userId).map(User::getVersion))) return null;
+            return user;
+        }
+        return updateOne(id, request);
+    }
+
+    private User updateOne(Long id, UserRequest request) {
+        return transactionTemplate.execute(status -> {
+            User user = repository.findById(id).orElse(null);
+            if (user == null) return null;
 
+            apply(user, request);
+
+            // Flush first so the recorded change carries the new version
+            User saved = repository.saveAndFlush(user);
+            changeFeed.record(UserChange.Type.UPDATED, saved);
+            return saved;
+        });
+    }
+
+    private static void apply(User user, UserRequest request) {
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setRole(request.getRole());
         user.setActive(request.isActive());
-
-        return repository.save(user);
     }
 
+    @Timed(SERVICE_TIMER)
     public boolean deleteUser(Long id) {
-        if (!repository.existsById(id)) return false;
-        repository.deleteById(id);
-        return true;
+        if (writeBehind != null) {
+            writeBehind.discard(id);
+        }
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!repository.existsById(id)) return false;
+            repository.deleteById(id);
+            changeFeed.recordDeleted(id);
+            return true;
+        }));
     }
 }
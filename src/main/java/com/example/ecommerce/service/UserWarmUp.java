@@ -0,0 +1,122 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms the connection pool, the second-level and query caches and the JIT
+ * before the app takes traffic. Boot only moves readiness to
+ * ACCEPTING_TRAFFIC once every ApplicationRunner has returned, so
+ * /actuator/health/readiness stays OUT_OF_SERVICE until this is done.
+ * Each step is best effort; a failure is logged and startup carries on.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.users.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class UserWarmUp implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserWarmUp.class);
+
+    private static final int PAGE_SIZE = 50;
+
+    private final HikariDataSource dataSource;
+    private final UserRepository repository;
+    private final UserService userService;
+    private final int recentUsers;
+    private final int iterations;
+    private final Duration timeout;
+
+    public UserWarmUp(HikariDataSource dataSource,
+                      UserRepository repository,
+                      UserService userService,
+                      @Value("${ecommerce.users.warm-up.recent-users:1000}") int recentUsers,
+                      @Value("${ecommerce.users.warm-up.iterations:10000}") int iterations,
+                      @Value("${ecommerce.users.warm-up.timeout:30s}") Duration timeout) {
+        this.dataSource = dataSource;
+        this.repository = repository;
+        this.userService = userService;
+        this.recentUsers = recentUsers;
+        this.iterations = iterations;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        int connections = openConnections();
+        List<Long> ids = loadRecentUsers();
+        int calls = exerciseLookups(ids, start + timeout.toNanos());
+        log.info("Warm-up opened {} connections, cached {} users and made {} calls in {} ms",
+                connections, ids.size(), calls, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int openConnections() {
+        List<Connection> held = new ArrayList<>();
+        try {
+            // The pool starts on its first borrow and only then knows its minimum
+            held.add(dataSource.getConnection());
+            while (held.size() < dataSource.getMinimumIdle()) {
+                held.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Warm-up could not open pool connections", e);
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Failed to return warm-up connection", e);
+                }
+            }
+        }
+        return held.size();
+    }
+
+    private List<Long> loadRecentUsers() {
+        if (recentUsers <= 0) return List.of();
+        try {
+            // Loading the entities puts them into the second-level cache
+            return repository.findRecentlyUpdated(PageRequest.of(0, recentUsers)).stream()
+                    .map(User::getId)
+                    .toList();
+        } catch (DataAccessException e) {
+            log.warn("Warm-up could not load recent users", e);
+            return List.of();
+        }
+    }
+
+    private int exerciseLookups(List<Long> ids, long deadline) {
+        int calls = 0;
+        try {
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                // Without users the lookups still run the miss path
+                Long id = ids.isEmpty() ? 0L : ids.get(i % ids.size());
+                userService.getUserById(id);
+                userService.getUserVersion(id);
+                if (i % PAGE_SIZE == 0) {
+                    userService.getAllUsers(null, PAGE_SIZE);
+                    calls++;
+                }
+                calls += 2;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up lookups stopped after {} calls", calls, e);
+        }
+        return calls;
+    }
+}
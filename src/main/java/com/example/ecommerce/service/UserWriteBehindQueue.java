@@ -0,0 +1,436 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.model.UserChange;
+import com.example.ecommerce.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Write-behind queue for user updates. Updates are held in a bounded map keyed
+ * by user ID, so repeated updates to one user collapse into the latest, and a
+ * background worker writes them out in JDBC batches.
+ *
+ * <p>Pending updates stay visible through {@link #pending(Long)} until their
+ * batch has committed, so reads see them immediately. With
+ * {@link Acknowledge#ENQUEUED} an update is confirmed once queued and
+ * updates not yet flushed are lost if the process dies; with
+ * {@link Acknowledge#FLUSHED} the caller waits for its batch to commit.
+ *
+ * <p>Each update only applies if the stored version is still the one it was
+ * queued against, so a change written elsewhere meanwhile is not overwritten.
+ * When a batch fails or hits such a conflict, its updates are retried one at
+ * a time so a single bad row does not hold back the rest. An update the
+ * database rejects, that conflicts, or that still fails after
+ * {@code max-attempts} flushes, is dropped and logged, and a caller waiting
+ * on it in {@link Acknowledge#FLUSHED} mode gets an error.
+ *
+ * <p>Once {@link #shutdown()} has started, new updates are rejected.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.users.write-behind.enabled", havingValue = "true")
+public class UserWriteBehindQueue {
+
+    public enum Acknowledge { ENQUEUED, FLUSHED }
+
+    private static final Logger log = LoggerFactory.getLogger(UserWriteBehindQueue.class);
+
+    private static final String UPDATE_USER =
+            "UPDATE users SET name = ?, email = ?, role = ?, active = ?, version = ?, updated_at = ?"
+            + " WHERE id = ? AND version = ?";
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserChangeFeed changeFeed;
+    private final int capacity;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Acknowledge acknowledge;
+    private final long offerTimeoutNanos;
+    private final Duration flushTimeout;
+    private final ScheduledExecutorService worker;
+
+    // Guards pending; notFull is signalled whenever entries leave it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final LinkedHashMap<Long, Pending> pending = new LinkedHashMap<>();
+    private long flushedBatches;
+    private boolean shutdown;
+    // Only one batch is written at a time, so updates to one user commit in order
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public UserWriteBehindQueue(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory,
+                                UserChangeFeed changeFeed,
+                                @Value("${ecommerce.users.write-behind.capacity:10000}") int capacity,
+                                @Value("${ecommerce.users.batch-size:100}") int batchSize,
+                                @Value("${ecommerce.users.write-behind.acknowledge:ENQUEUED}") Acknowledge acknowledge,
+                                @Value("${ecommerce.users.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                @Value("${ecommerce.users.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                                @Value("${ecommerce.users.write-behind.flush-timeout:5s}") Duration flushTimeout,
+                                @Value("${ecommerce.users.write-behind.max-attempts:5}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.changeFeed = changeFeed;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.acknowledge = acknowledge;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.flushTimeout = flushTimeout;
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        worker.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues an update, replacing any update to the same user that has not
+     * started flushing. The update is stamped with the current time and a
+     * version one above the user's latest queued or stored version. Waits up
+     * to the offer timeout for room when the queue is full, and in
+     * {@link Acknowledge#FLUSHED} mode until the update has been written.
+     *
+     * @param user the full new state of the user, with its ID set
+     * @param storedVersion looks up the stored version of a user, empty if there is no such user
+     * @return false if the user has neither a queued update nor a stored row
+     * @throws WriteBehindUnavailableException if the queue is shut down, stays
+     *         full, or the update is not flushed within the flush timeout
+     */
+    public boolean enqueue(User user, Function<Long, Optional<Long>> storedVersion) {
+        Long id = user.getId();
+        CompletableFuture<Void> flushed;
+        lock.lock();
+        try {
+            long remaining = offerTimeoutNanos;
+            Optional<Long> stored = null;
+            long storedAsOf = -1;
+            while (true) {
+                if (shutdown) {
+                    throw new WriteBehindUnavailableException("User update queue is shut down");
+                }
+                Pending previous = pending.get(id);
+                if (previous == null && pending.size() >= capacity) {
+                    if (remaining <= 0) {
+                        throw new WriteBehindUnavailableException("User update queue is full");
+                    }
+                    remaining = notFull.awaitNanos(remaining);
+                    continue;
+                }
+                if (previous == null && (stored == null || storedAsOf != flushedBatches)) {
+                    // Look the stored version up without holding the lock; redo it if a
+                    // batch commits meanwhile, since that may have changed the stored version
+                    storedAsOf = flushedBatches;
+                    lock.unlock();
+                    try {
+                        stored = storedVersion.apply(id);
+                    } finally {
+                        lock.lock();
+                    }
+                    continue;
+                }
+                if (previous == null && stored.isEmpty()) {
+                    return false;
+                }
+
+                long base = previous != null ? previous.user.getVersion() : stored.get();
+                user.setVersion(base + 1);
+                user.setUpdatedAt(Instant.now());
+                // An update that is already being written cannot absorb this one; it applies on top of it
+                boolean replaces = previous != null && !previous.inFlight;
+                flushed = replaces ? previous.flushed : new CompletableFuture<>();
+                long expectedVersion = replaces ? previous.expectedVersion : base;
+                pending.put(id, new Pending(user, expectedVersion, flushed));
+                if (previous == null && pending.size() % batchSize == 0) {
+                    worker.execute(this::flush);
+                }
+                break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteBehindUnavailableException("Interrupted while queueing user update");
+        } finally {
+            lock.unlock();
+        }
+
+        if (acknowledge == Acknowledge.FLUSHED) {
+            awaitFlush(flushed);
+        }
+        return true;
+    }
+
+    /**
+     * @param id the user ID
+     * @return the queued state of the user, if an update has not been written yet
+     */
+    public Optional<User> pending(Long id) {
+        lock.lock();
+        try {
+            Pending entry = pending.get(id);
+            return entry == null ? Optional.empty() : Optional.of(entry.user);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops any queued update for a user, e.g. because the user is being
+     * deleted. Waits for a flush in progress first, so an update already
+     * being written has committed or failed before the caller goes on to
+     * delete the row.
+     *
+     * @param id the user ID
+     */
+    public void discard(Long id) {
+        flushLock.lock();
+        try {
+            lock.lock();
+            try {
+                Pending entry = pending.remove(id);
+                if (entry != null) {
+                    entry.flushed.complete(null);
+                    notFull.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of users with an update not yet written
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes queued updates in batches until the queue is empty or a batch
+     * leaves updates to retry.
+     *
+     * @return true if the queue was emptied
+     */
+    boolean flush() {
+        flushLock.lock();
+        try {
+            List<Pending> batch;
+            while (!(batch = nextBatch()).isEmpty()) {
+                if (!write(batch)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            // Set under the lock so no enqueue hands the worker a flush after it has stopped
+            shutdown = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        worker.shutdown();
+        try {
+            worker.awaitTermination(flushTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int attempt = 0; attempt < SHUTDOWN_FLUSH_ATTEMPTS; attempt++) {
+            if (flush()) {
+                return;
+            }
+        }
+        log.error("Shutting down with {} user updates that could not be written", size());
+    }
+
+    private List<Pending> nextBatch() {
+        lock.lock();
+        try {
+            List<Pending> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            Iterator<Pending> iterator = pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Pending entry = iterator.next();
+                entry.inFlight = true;
+                batch.add(entry);
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean write(List<Pending> batch) {
+        List<Pending> written = new ArrayList<>(batch.size());
+        List<Pending> dropped = new ArrayList<>();
+        List<Pending> retry = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[] updated = jdbcTemplate.batchUpdate(UPDATE_USER, batch.stream()
+                        .map(UserWriteBehindQueue::updateArgs)
+                        .toList());
+                // Rolls the batch back so the per-item retry can single out the conflicting updates
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] == 0) {
+                        throw conflict(batch.get(i));
+                    }
+                }
+                batch.forEach(entry -> changeFeed.record(UserChange.Type.UPDATED, entry.user));
+            });
+            written.addAll(batch);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to write {} queued user updates as a batch, retrying one at a time", batch.size(), e);
+            for (Pending entry : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (jdbcTemplate.update(UPDATE_USER, updateArgs(entry)) == 0) {
+                            throw conflict(entry);
+                        }
+                        changeFeed.record(UserChange.Type.UPDATED, entry.user);
+                    });
+                    written.add(entry);
+                } catch (DataAccessException | TransactionException itemFailure) {
+                    entry.attempts++;
+                    // Retrying cannot fix a rejected row or a version the user has already moved past
+                    if (itemFailure instanceof DataIntegrityViolationException
+                            || itemFailure instanceof OptimisticLockingFailureException
+                            || entry.attempts >= maxAttempts) {
+                        log.error("Dropping queued update to user {} after {} attempts",
+                                entry.user.getId(), entry.attempts, itemFailure);
+                        entry.failure = itemFailure;
+                        dropped.add(entry);
+                    } else {
+                        retry.add(entry);
+                    }
+                }
+            }
+        }
+
+        if (!written.isEmpty()) {
+            // The updates bypassed Hibernate, so drop the stale second-level and query cache entries
+            written.forEach(entry -> entityManagerFactory.getCache().evict(User.class, entry.user.getId()));
+            entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                    .evictQueryRegion(UserRepository.VERSION_QUERY_REGION);
+        }
+        lock.lock();
+        try {
+            if (!written.isEmpty()) {
+                flushedBatches++;
+            }
+            for (Pending entry : written) {
+                // A newer update queued meanwhile stays pending
+                pending.remove(entry.user.getId(), entry);
+                entry.flushed.complete(null);
+            }
+            for (Pending entry : dropped) {
+                pending.remove(entry.user.getId(), entry);
+                entry.flushed.completeExceptionally(entry.failure);
+            }
+            for (Pending entry : retry) {
+                entry.inFlight = false;
+                // An entry superseded or discarded meanwhile is settled by whatever replaced it
+                Pending current = pending.get(entry.user.getId());
+                if (current == null) {
+                    entry.flushed.complete(null);
+                } else if (current != entry) {
+                    current.flushed.whenComplete((result, failure) -> entry.flushed.complete(null));
+                }
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return retry.isEmpty();
+    }
+
+    private static Object[] updateArgs(Pending entry) {
+        User user = entry.user;
+        return new Object[]{user.getName(), user.getEmail(), user.getRole(), user.isActive(), user.getVersion(),
+                Timestamp.from(user.getUpdatedAt()), user.getId(), entry.expectedVersion};
+    }
+
+    private static OptimisticLockingFailureException conflict(Pending entry) {
+        return new OptimisticLockingFailureException("User " + entry.user.getId()
+                + " was changed or deleted since its update was queued against version " + entry.expectedVersion);
+    }
+
+    private void awaitFlush(CompletableFuture<Void> flushed) {
+        try {
+            flushed.get(flushTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new WriteBehindUnavailableException("User update was queued but not yet written");
+        } catch (ExecutionException e) {
+            throw new WriteBehindUnavailableException("User update could not be written: "
+                    + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteBehindUnavailableException("Interrupted while waiting for user update to be written");
+        }
+    }
+
+    private static final class Pending {
+        private final User user;
+        // Stored version the update was queued against
+        private final long expectedVersion;
+        private final CompletableFuture<Void> flushed;
+        private boolean inFlight;
+        private int attempts;
+        private RuntimeException failure;
+
+        private Pending(User user, long expectedVersion, CompletableFuture<Void> flushed) {
+            this.user = user;
+            this.expectedVersion = expectedVersion;
+            this.flushed = flushed;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ecommerce.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The write-behind queue could not accept or confirm an update in time; the client should retry
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WriteBehindUnavailableException extends RuntimeException {
+
+    public WriteBehindUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.model.User;
+import com.example.userservice.util.Hashing;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over normalized user emails, used to answer "definitely absent"
+ * without querying the database.
+ *
+ * <p>Until {@link #markReady()} is called after the startup load, every
+ * email is reported as possibly present so that lookups fall through to the
+ * database. Bits are set with CAS, so concurrent writers need no locking.
+ * Deleted users are never removed; they only raise the false-positive rate.
+ */
+@Component
+@Slf4j
+public class EmailBloomFilter implements MeterBinder {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    private final AtomicLong bitsSet = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    private volatile boolean ready;
+
+    public EmailBloomFilter(
+            @Value("${user.bloom.email.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${user.bloom.email.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter sizing: expectedInsertions="
+                    + expectedInsertions + ", falsePositiveRate=" + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int words = (int) Math.min(Integer.MAX_VALUE, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.numBits = (long) words * 64;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * LN2));
+        log.info("Email bloom filter initialised with {} bits and {} hash functions", numBits, numHashes);
+    }
+
+    /**
+     * Adds an email to the filter.
+     *
+     * @param email the email to add (any case)
+     */
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash1 = Hashing.hash(User.normalizeEmail(email));
+        long hash2 = Hashing.mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % numBits;
+            setBit(index);
+        }
+    }
+
+    /**
+     * Tests whether an email may be present. Always true until the filter is ready.
+     *
+     * @param email the email to test (any case)
+     * @return false only if the email is definitely not stored
+     */
+    public boolean mightContain(String email) {
+        if (!ready) {
+            return true;
+        }
+        long hash1 = Hashing.hash(User.normalizeEmail(email));
+        long hash2 = Hashing.mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < numHashes; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % numBits;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                rejections.incrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records that {@link #mightContain(String)} answered true for an email
+     * that the database then did not find.
+     */
+    public void recordFalsePositive() {
+        if (ready) {
+            falsePositives.incrementAndGet();
+        }
+    }
+
+    /**
+     * Zeroes the rejection and false-positive counts, e.g. after synthetic
+     * startup traffic. The filter's contents are kept.
+     */
+    public void resetCounters() {
+        rejections.set(0);
+        falsePositives.set(0);
+    }
+
+    /**
+     * Marks the startup load as complete so negative answers are trusted.
+     */
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the false-positive probability implied by the current bit occupancy.
+     *
+     * @return the expected false-positive rate
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / numBits, numHashes);
+    }
+
+    /**
+     * Returns the false-positive rate observed on absent emails since startup.
+     *
+     * @return false positives divided by all lookups for absent emails
+     */
+    public double observedFalsePositiveRate() {
+        long fp = falsePositives.get();
+        long negatives = fp + rejections.get();
+        return negatives == 0 ? 0.0 : (double) fp / negatives;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("user.email.bloom.fpp.expected", this, EmailBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive rate implied by the email bloom filter bit occupancy")
+                .register(registry);
+        Gauge.builder("user.email.bloom.fpp.observed", this, EmailBloomFilter::observedFalsePositiveRate)
+                .description("False-positive rate observed on lookups for absent emails")
+                .register(registry);
+        FunctionCounter.builder("user.email.bloom.rejections", rejections, AtomicLong::get)
+                .description("Email lookups answered as absent without a database query")
+                .register(registry);
+        FunctionCounter.builder("user.email.bloom.false.positives", falsePositives, AtomicLong::get)
+                .description("Email lookups the filter let through that the database did not find")
+                .register(registry);
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        bitsSet.incrementAndGet();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.index.NameTrigramIndex;
+import com.example.userservice.repository.UserKeyView;
+import com.example.userservice.repository.UserStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Populates the in-memory lookup structures from the database. Run at
+ * startup by {@link com.example.userservice.warmup.StartupWarmUp}, before
+ * the service reports ready. Writes made while the load is running are also
+ * applied by the entity listener, so none are missed before the structures
+ * are marked ready.
+ *
+ * <p>The entity listener only sees this instance's writes. Users created or
+ * renamed by other instances sharing the database are picked up by a
+ * periodic refresh of the rows updated since the previous one, so the bloom
+ * filter stops reporting them as absent within one refresh interval. With a
+ * single writing instance the refresh can be turned off.
+ *
+ * <p>{@link #initialize()} may be called again to reload the structures; the
+ * refresh is scheduled only by the first call.
+ */
+@Component
+@Slf4j
+public class LookupIndexInitializer {
+
+    private final UserStore userRepository;
+    private final EmailBloomFilter emailBloomFilter;
+    private final NameTrigramIndex nameTrigramIndex;
+    private final Duration refreshInterval;
+    private final ScheduledThreadPoolExecutor refresher;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private volatile LocalDateTime refreshedFrom;
+
+    public LookupIndexInitializer(UserStore userRepository, EmailBloomFilter emailBloomFilter,
+                                  NameTrigramIndex nameTrigramIndex,
+                                  @Value("${user.lookup-index.refresh-interval:30s}") Duration refreshInterval) {
+        this.userRepository = userRepository;
+        this.emailBloomFilter = emailBloomFilter;
+        this.nameTrigramIndex = nameTrigramIndex;
+        this.refreshInterval = refreshInterval;
+        this.refresher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "lookup-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public void initialize() {
+        long start = System.nanoTime();
+        refreshedFrom = LocalDateTime.now();
+        AtomicLong count = new AtomicLong();
+        try (Stream<UserKeyView> keys = userRepository.streamAllKeys()) {
+            keys.forEach(key -> {
+                put(key);
+                count.incrementAndGet();
+            });
+        }
+        emailBloomFilter.markReady();
+        nameTrigramIndex.markReady();
+        log.info("Loaded {} users into lookup indexes in {} ms", count.get(), (System.nanoTime() - start) / 1_000_000);
+
+        if (!refreshInterval.isZero() && !refreshInterval.isNegative() && refreshScheduled.compareAndSet(false, true)) {
+            refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(),
+                    refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Adds the users written since the previous refresh, by this or any
+     * other instance.
+     */
+    void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        // Overlap by one interval, for clock skew between instances and transactions that commit late
+        LocalDateTime since = refreshedFrom.minus(refreshInterval);
+        try {
+            List<UserKeyView> keys = userRepository.findKeysUpdatedSince(since);
+            keys.forEach(this::put);
+            refreshedFrom = started;
+            log.debug("Refreshed lookup indexes with {} users updated since {}", keys.size(), since);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh lookup indexes; retrying from {} next time", since, e);
+        }
+    }
+
+    /**
+     * @return the number of refresh tasks scheduled
+     */
+    int scheduledRefreshes() {
+        return refresher.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void put(UserKeyView key) {
+        emailBloomFilter.put(key.getEmailNormalized());
+        nameTrigramIndex.put(key.getId(), key.getName());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.userservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the
+ * loader and every caller that arrives while it is in flight waits for and
+ * shares its result (or exception) instead of issuing its own query.
+ *
+ * <p>A caller waits at most the configured timeout for another caller's
+ * load, then runs the loader itself. Callers for whom the condition given at
+ * construction is false, such as clients that must read their own writes,
+ * never join a load and run the loader directly.
+ *
+ * <p>Results are not retained once the load completes; combine with a cache
+ * for that.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final long waitTimeoutNanos;
+    private final BooleanSupplier mayJoin;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public SingleFlight(String name, Duration waitTimeout) {
+        this(name, waitTimeout, () -> true);
+    }
+
+    /**
+     * @param name the lookup name, used as the meter tag
+     * @param waitTimeout how long a caller waits for another caller's load
+     * @param mayJoin whether the current caller may share another caller's load
+     */
+    public SingleFlight(String name, Duration waitTimeout, BooleanSupplier mayJoin) {
+        this.name = name;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.mayJoin = mayJoin;
+    }
+
+    /**
+     * Returns the result of the in-flight load for the key, or runs the loader
+     * if none is in flight.
+     *
+     * @param key the lookup key
+     * @param loader the load to run when this caller is first
+     * @return the loaded value
+     */
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        if (!mayJoin.getAsBoolean()) {
+            return loader.get();
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing, loader);
+        }
+
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Zeroes the counters, e.g. after synthetic startup traffic.
+     */
+    public void resetCounters() {
+        calls.reset();
+        coalesced.reset();
+        timedOut.reset();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.lookup.singleflight.calls", calls, LongAdder::sum)
+                .tag("lookup", name)
+                .description("Lookups that went through request coalescing")
+                .register(registry);
+        FunctionCounter.builder("user.lookup.singleflight.coalesced", coalesced, LongAdder::sum)
+                .tag("lookup", name)
+                .description("Lookups served by another caller's in-flight query")
+                .register(registry);
+        FunctionCounter.builder("user.lookup.singleflight.timeouts", timedOut, LongAdder::sum)
+                .tag("lookup", name)
+                .description("Lookups that stopped waiting for another caller's query and ran their own")
+                .register(registry);
+    }
+
+    private V await(CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            return future.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight lookup", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
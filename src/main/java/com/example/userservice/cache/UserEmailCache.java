@@ -0,0 +1,205 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded in-process cache of users keyed by normalized (lower-cased) email.
+ * Backed by Caffeine, which evicts with W-TinyLFU once the size cap is reached
+ * and expires entries after a fixed time-to-live. Hits and misses are
+ * published as {@code cache.gets{cache="user-email"}}.
+ *
+ * <p>Entries are detached copies, and every hit returns a fresh copy, so a
+ * caller changing a returned user affects neither the cache nor a
+ * persistence context. Each user has at most one entry, and a reverse map
+ * from ID to email lets a user be evicted without knowing its email.
+ *
+ * <p>Puts are version-aware: once a write to a user has committed, rows
+ * older than that write are no longer cached. A read served by a lagging
+ * replica, or one that raced the write, therefore cannot put a stale row
+ * back after the write evicted it.
+ */
+@Component
+@Slf4j
+public class UserEmailCache implements MeterBinder {
+
+    private final Cache<String, User> cache;
+
+    // Email key of each cached user; updated under the entry's lock, so it never misses a live entry
+    private final Map<Long, String> emailsById = new ConcurrentHashMap<>();
+
+    // Lowest version that may still be cached, per user ID, kept as long as an entry would be
+    private final Cache<Long, Long> committedVersions;
+
+    public UserEmailCache(
+            @Value("${user.cache.email.maximum-size:10000}") long maximumSize,
+            @Value("${user.cache.email.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((String email, User user, RemovalCause cause) -> forget(user, email))
+                .recordStats()
+                .build();
+        this.committedVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        log.info("User email cache initialised with maximumSize={} ttl={}", maximumSize, ttl);
+    }
+
+    /**
+     * Returns the cached user for the given email, if present.
+     *
+     * @param email the email to look up (any case)
+     * @return the cached user or empty on a miss
+     */
+    public Optional<User> get(String email) {
+        return Optional.ofNullable(cache.getIfPresent(User.normalizeEmail(email))).map(User::copy);
+    }
+
+    /**
+     * Stores a user under its normalized email, unless a newer version of
+     * the user has since been written.
+     *
+     * @param user the user loaded from the database
+     */
+    public void put(User user) {
+        if (user.getEmail() == null || isStale(user)) {
+            return;
+        }
+        String email = User.normalizeEmail(user.getEmail());
+        User copy = user.copy();
+        if (copy.getId() == null) {
+            cache.put(email, copy);
+            return;
+        }
+        String[] previous = new String[1];
+        cache.asMap().compute(email, (key, current) -> {
+            if (current != null && !copy.getId().equals(current.getId())) {
+                forget(current, key);
+            }
+            previous[0] = emailsById.put(copy.getId(), key);
+            return copy;
+        });
+        // The user's email changed since it was last cached
+        if (previous[0] != null && !previous[0].equals(email)) {
+            invalidateIfHolding(previous[0], copy.getId());
+        }
+    }
+
+    /**
+     * Records that a write to a user has committed, so older versions of
+     * the user are no longer cached. Call before evicting the user's entry.
+     *
+     * @param id the user ID
+     * @param version the committed version, or {@code null} if the user was deleted
+     */
+    public void recordWrite(Long id, Long version) {
+        if (id == null) {
+            return;
+        }
+        long floor = version != null ? version : Long.MAX_VALUE;
+        committedVersions.asMap().merge(id, floor, Math::max);
+    }
+
+    private void invalidateIfHolding(String email, Long id) {
+        cache.asMap().computeIfPresent(email, (key, user) -> {
+            if (!id.equals(user.getId())) {
+                return user;
+            }
+            forget(user, key);
+            return null;
+        });
+    }
+
+    private void forget(User user, String email) {
+        if (user != null && user.getId() != null) {
+            emailsById.remove(user.getId(), email);
+        }
+    }
+
+    private boolean isStale(User user) {
+        if (user.getId() == null) {
+            return false;
+        }
+        Long floor = committedVersions.getIfPresent(user.getId());
+        if (floor == null) {
+            return false;
+        }
+        return user.getVersion() == null || user.getVersion() < floor;
+    }
+
+    /**
+     * Removes the entry for the given email.
+     *
+     * @param email the email to invalidate (any case)
+     */
+    public void invalidate(String email) {
+        cache.asMap().computeIfPresent(User.normalizeEmail(email), (key, user) -> {
+            forget(user, key);
+            return null;
+        });
+    }
+
+    /**
+     * Removes the entry holding the user with the given ID. Used when the
+     * email of a user may have changed and the old key is unknown.
+     *
+     * @param id the user ID
+     */
+    public void invalidateUser(Long id) {
+        if (id == null) {
+            return;
+        }
+        String email = emailsById.get(id);
+        if (email != null) {
+            invalidateIfHolding(email, id);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        emailsById.clear();
+        committedVersions.invalidateAll();
+    }
+
+    /**
+     * Returns hit, miss and eviction counters since startup.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached entries.
+     *
+     * @return the estimated size
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "user-email");
+    }
+}
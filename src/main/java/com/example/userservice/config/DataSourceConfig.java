@@ -0,0 +1,55 @@
+package com.example.userservice.config;
+
+import com.example.userservice.datasource.ReplicaAwareJpaDialect;
+import com.example.userservice.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * JDBC datasource for the JPA write path. Spring Boot skips its own
+ * datasource when an R2DBC {@code ConnectionFactory} is present, so it is
+ * declared here from the usual {@code spring.datasource.*} properties. The
+ * JPA transaction manager is primary so that {@code @Transactional} keeps
+ * using it alongside the reactive one. With replica routing enabled the
+ * datasource comes from {@link ReplicaRoutingConfig} instead, and the
+ * transaction manager keeps replica reads out of the Hibernate caches.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    @ConditionalOnProperty(name = "user.datasource.routing.enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<ReplicaRoutingDataSource> routing) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        routing.ifAvailable(routingDataSource ->
+                transactionManager.setJpaDialect(new ReplicaAwareJpaDialect(routingDataSource)));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.userservice.config;
+
+import com.example.userservice.hotkey.HotKeyProperties;
+import com.example.userservice.hotkey.HotKeyTracker;
+import com.example.userservice.hotkey.HotKeysEndpoint;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Heavy hitter tracking for the user lookup paths, reported at
+ * {@code /actuator/hotkeys} when that endpoint is enabled and exposed.
+ */
+@Configuration
+@EnableConfigurationProperties(HotKeyProperties.class)
+public class HotKeyConfig {
+
+    @Bean
+    public HotKeyTracker<String> emailHotKeys(HotKeyProperties properties) {
+        return new HotKeyTracker<>("email", properties);
+    }
+
+    @Bean
+    public HotKeyTracker<Long> idHotKeys(HotKeyProperties properties) {
+        return new HotKeyTracker<>("id", properties);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public HotKeysEndpoint hotKeysEndpoint(HotKeyTracker<String> emailHotKeys, HotKeyTracker<Long> idHotKeys) {
+        return new HotKeysEndpoint(emailHotKeys, idHotKeys);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.userservice.config;
+
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.datasource.ClientContext;
+import com.example.userservice.datasource.PrimaryStickiness;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.model.User;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Request coalescing for the user lookup paths. Each bean also publishes its
+ * call and coalesced counters through Micrometer.
+ */
+@Configuration
+public class LookupConfig {
+
+    @Bean
+    public SingleFlight<String, Optional<User>> emailLookupFlight(
+            @Value("${user.lookup.coalesce-timeout:2s}") Duration coalesceTimeout,
+            ObjectProvider<PrimaryStickiness> primaryStickiness) {
+        return new SingleFlight<>("email", coalesceTimeout, notSticky(primaryStickiness));
+    }
+
+    @Bean
+    public SingleFlight<Long, Optional<UserResponseDTO>> idLookupFlight(
+            @Value("${user.lookup.coalesce-timeout:2s}") Duration coalesceTimeout,
+            ObjectProvider<PrimaryStickiness> primaryStickiness) {
+        return new SingleFlight<>("id", coalesceTimeout, notSticky(primaryStickiness));
+    }
+
+    /**
+     * A client that must read its own writes from the primary cannot share a
+     * load another client may be running on a replica.
+     */
+    private static BooleanSupplier notSticky(ObjectProvider<PrimaryStickiness> primaryStickiness) {
+        PrimaryStickiness stickiness = primaryStickiness.getIfAvailable();
+        if (stickiness == null) {
+            return () -> true;
+        }
+        return () -> !stickiness.isSticky(ClientContext.currentClientId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.userservice.config;
+
+import com.example.userservice.datasource.ClientContextFilter;
+import com.example.userservice.datasource.PrimaryStickiness;
+import com.example.userservice.datasource.ReplicaRoutingDataSource;
+import com.example.userservice.datasource.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing, enabled with {@code user.datasource.routing.enabled=true}.
+ * Replaces the plain datasource from {@link DataSourceConfig} with a lazy
+ * routing datasource over the primary and the configured replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public PrimaryStickiness primaryStickiness(ReplicaRoutingProperties properties) {
+        return new PrimaryStickiness(properties.getStickyWindow());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaRoutingProperties properties,
+                                                             PrimaryStickiness primaryStickiness) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (DataSourceProperties replica : properties.getReplicas()) {
+            HikariDataSource dataSource = replica.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, primaryStickiness);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ClientContextFilter clientContextFilter(ReplicaRoutingProperties properties) {
+        return new ClientContextFilter(properties.getClientHeader());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.userservice.config;
+
+import com.example.userservice.logging.RequestLogSamplingFilter;
+import com.example.userservice.logging.RequestLoggingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sampled access logging, enabled with {@code user.logging.requests.enabled=true}
+ * (on in the {@code prod} profile).
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.logging.requests.enabled", havingValue = "true")
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+public class RequestLoggingConfig {
+
+    @Bean
+    public RequestLogSamplingFilter requestLogSamplingFilter(RequestLoggingProperties properties) {
+        return new RequestLogSamplingFilter(properties);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.userservice.config;
+
+import com.example.userservice.model.UserEntityListener;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.repository.UserStore;
+import com.example.userservice.shard.ShardedUserRepository;
+import com.example.userservice.shard.ShardedUserStore;
+import com.example.userservice.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.MariaDBSequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.OracleSequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.SqlServerSequenceMaxValueIncrementer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sharded user store, enabled with {@code user.sharding.enabled=true}. The
+ * services depend on {@link UserStore}, and the sharded implementation takes
+ * precedence over the JPA {@link UserRepository}, so every service reads the
+ * shards. The shard pools are owned by the store's configuration
+ * and closed with the context.
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    private final List<HikariDataSource> shardPools = new ArrayList<>();
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardQueryExecutor(ShardingProperties properties) {
+        // Shared by all requests; when every thread is busy the request thread queries the shard itself
+        int threads = Math.max(1, properties.getQueryThreads());
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new CustomizableThreadFactory("shard-query-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean
+    public ShardedUserStore shardedUserStore(ShardingProperties properties, ExecutorService shardQueryExecutor) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (DataSourceProperties shard : properties.getShards()) {
+            String name = StringUtils.hasText(shard.getName()) ? shard.getName() : "shard-" + shards.size();
+            HikariDataSource dataSource = shard.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            dataSource.setPoolName(name);
+            shardPools.add(dataSource);
+            shards.put(name, dataSource);
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("user.sharding.enabled=true but no user.sharding.shards are configured");
+        }
+        DataFieldMaxValueIncrementer ids =
+                idIncrementer(shards.values().iterator().next(), properties.getIdSequence());
+        return new ShardedUserStore(shards, properties.getVirtualNodes(), ids, shardQueryExecutor);
+    }
+
+    @Bean
+    @Primary
+    public ShardedUserRepository shardedUserRepository(ShardedUserStore shardedUserStore,
+                                                       UserEntityListener userEntityListener) {
+        return new ShardedUserRepository(shardedUserStore, userEntityListener);
+    }
+
+    @PreDestroy
+    public void closeShardPools() {
+        shardPools.forEach(HikariDataSource::close);
+    }
+
+    private static DataFieldMaxValueIncrementer idIncrementer(DataSource dataSource, String sequence) {
+        String product;
+        try {
+            product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot determine the database of the first shard", e);
+        }
+        return switch (JdbcUtils.commonDatabaseName(product)) {
+            case "H2" -> new H2SequenceMaxValueIncrementer(dataSource, sequence);
+            case "PostgreSQL" -> new PostgresSequenceMaxValueIncrementer(dataSource, sequence);
+            case "Oracle" -> new OracleSequenceMaxValueIncrementer(dataSource, sequence);
+            case "MariaDB" -> new MariaDBSequenceMaxValueIncrementer(dataSource, sequence);
+            case "Microsoft SQL Server" -> new SqlServerSequenceMaxValueIncrementer(dataSource, sequence);
+            default -> throw new IllegalStateException("No ID sequence support for shard database " + product);
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.userservice.config;
+
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.cache.LookupIndexInitializer;
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.cache.UserEmailCache;
+import com.example.userservice.hotkey.HotKeyTracker;
+import com.example.userservice.repository.UserStore;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserServiceImpl;
+import com.example.userservice.warmup.StartupWarmUp;
+import com.example.userservice.warmup.WarmUpProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup warm-up, run before the service reports ready. Only the index
+ * load runs with {@code user.warmup.enabled=false}.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class WarmUpConfig {
+
+    @Bean
+    public StartupWarmUp startupWarmUp(WarmUpProperties properties, LookupIndexInitializer lookupIndexInitializer,
+                                       ObjectProvider<HikariDataSource> pools, UserStore userRepository,
+                                       UserEmailCache userEmailCache, UserService userService,
+                                       UserServiceImpl userServiceImpl, HotKeyTracker<String> emailHotKeys,
+                                       EmailBloomFilter emailBloomFilter,
+                                       ObjectProvider<SingleFlight<?, ?>> lookupFlights,
+                                       MeterRegistry meterRegistry) {
+        return new StartupWarmUp(properties, lookupIndexInitializer, pools.orderedStream().toList(),
+                userRepository, userEmailCache, userService, userServiceImpl, emailHotKeys,
+                emailBloomFilter, lookupFlights.orderedStream().toList(), meterRegistry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.service.ReactiveUserService;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read endpoints backed by R2DBC. The request thread is
+ * released while the query runs and the response is completed
+ * asynchronously when the Mono or Flux emits. Errors are mapped by
+ * {@code GlobalExceptionHandler} exactly as on {@link UserController}.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/users")
+@Validated
+public class ReactiveUserController {
+    
+    private final ReactiveUserService reactiveUserService;
+    
+    @Autowired
+    public ReactiveUserController(ReactiveUserService reactiveUserService) {
+        this.reactiveUserService = reactiveUserService;
+    }
+    
+    /**
+     * GET endpoint to retrieve user by email
+     * 
+     * @param email the email ID to search for
+     * @return Mono emitting the user
+     */
+    @GetMapping
+    public Mono<UserResponseDTO> getUserByEmail(
+            @RequestParam 
+            @NotBlank(message = "Email parameter is required") 
+            String email) {
+        return reactiveUserService.getUserByEmail(email);
+    }
+    
+    /**
+     * GET endpoint to retrieve user by email (path variable)
+     * 
+     * @param email the email ID to search for
+     * @return Mono emitting the user
+     */
+    @GetMapping("/{email}")
+    public Mono<UserResponseDTO> getUserByEmailPath(
+            @PathVariable 
+            @NotBlank(message = "Email is required") 
+            String email) {
+        return reactiveUserService.getUserByEmail(email);
+    }
+    
+    /**
+     * GET endpoint to search users by name
+     * 
+     * @param name the text the user's name must contain
+     * @return Flux emitting the matching users; streamed as NDJSON when
+     *         requested with {@code Accept: application/x-ndjson}
+     */
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UserResponseDTO> searchByName(@RequestParam String name) {
+        return reactiveUserService.findUsersByName(name);
+    }
+    
+    /**
+     * GET endpoint to stream all users as NDJSON. Rows are read from the
+     * database only as fast as the client consumes them.
+     * 
+     * @return Flux emitting every user in ID order
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserResponseDTO> streamAllUsers() {
+        return reactiveUserService.streamAllUsers();
+    }
+}
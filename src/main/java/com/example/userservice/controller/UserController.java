@@ -1,15 +1,29 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.CursorPageDTO;
+import com.example.userservice.dto.UserLookupRequestDTO;
+import com.example.userservice.dto.UserLookupResponseDTO;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.dto.UserVersionDTO;
 import com.example.userservice.model.User;
 import com.example.userservice.service.UserService;
-import jakarta.validation.constraints.Email;
+import com.example.userservice.service.UserServiceImpl;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -18,45 +32,153 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
     
     private final UserService userService;
+    private final UserServiceImpl userServiceImpl;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserServiceImpl userServiceImpl) {
         this.userService = userService;
+        this.userServiceImpl = userServiceImpl;
     }
     
     /**
      * GET endpoint to retrieve user by email
      * 
      * @param email the email ID to search for
-     * @return ResponseEntity containing User object and HTTP status
+     * @param request the current request, for its conditional headers
+     * @return ResponseEntity containing User object and HTTP status, or null
+     *         once a 304 Not Modified has been prepared
      */
     @GetMapping
     public ResponseEntity<User> getUserByEmail(
             @RequestParam 
             @NotBlank(message = "Email parameter is required") 
-            @Email(message = "Email should be valid") 
-            String email) {
+            String email,
+            WebRequest request) {
         
-        log.info("Received request to get user by email: {}", email);
-        User user = userService.getUserByEmail(email);
-        return ResponseEntity.ok(user);
+        log.debug("Received request to get user by email: {}", email);
+        if (isNotModified(email, request)) {
+            return null;
+        }
+        return withValidators(userService.getUserByEmail(email));
     }
     
     /**
      * GET endpoint to retrieve user by email (alternative path variable approach)
      * 
      * @param email the email ID to search for
-     * @return ResponseEntity containing User object and HTTP status
+     * @param request the current request, for its conditional headers
+     * @return ResponseEntity containing User object and HTTP status, or null
+     *         once a 304 Not Modified has been prepared
      */
     @GetMapping("/{email}")
     public ResponseEntity<User> getUserByEmailPath(
             @PathVariable 
             @NotBlank(message = "Email is required") 
-            @Email(message = "Email should be valid") 
-            String email) {
+            String email,
+            WebRequest request) {
+        
+        log.debug("Received request to get user by email (path): {}", email);
+        if (isNotModified(email, request)) {
+            return null;
+        }
+        return withValidators(userService.getUserByEmail(email));
+    }
+    
+    /**
+     * POST endpoint to resolve many emails in one request
+     * 
+     * @param request the emails to resolve
+     * @return ResponseEntity containing the users found and the emails that were not
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<UserLookupResponseDTO> lookupUsers(
+            @Valid @RequestBody UserLookupRequestDTO request) {
+        
+        log.debug("Received request to look up {} emails", request.getEmails().size());
+        return ResponseEntity.ok(userService.getUsersByEmails(request.getEmails()));
+    }
+    
+    /**
+     * GET endpoint to list users one page at a time using an opaque cursor
+     * 
+     * @param after cursor returned with the previous page, omitted for the first page
+     * @param limit page size, capped at {@value UserServiceImpl#MAX_PAGE_SIZE}
+     * @return ResponseEntity containing the page of users and the next cursor
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<UserResponseDTO>> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        log.debug("Received request to list users after cursor: {}", after);
+        return ResponseEntity.ok(userServiceImpl.getAllUsers(after, limit));
+    }
+    
+    /**
+     * GET endpoint to export all users as newline-delimited JSON, streamed
+     * straight to the response without building the full list in memory
+     * 
+     * @return ResponseEntity whose body writes one JSON user per line
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
         
-        log.info("Received request to get user by email (path): {}", email);
-        User user = userService.getUserByEmail(email);
-        return ResponseEntity.ok(user);
+        log.info("Received request to export all users");
+        StreamingResponseBody body = userServiceImpl::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Health check endpoint
+     * 
+     * @return ResponseEntity with a fixed status message
+     */
+    @GetMapping("/health")
+    public ResponseEntity<String> healthCheck() {
+        return ResponseEntity.ok("User Service is running");
+    }
+    
+    /**
+     * Checks If-None-Match / If-Modified-Since against the user's version
+     * before the user is loaded, and sets the 304 status when the client's
+     * copy is current. Requests without either header skip the version
+     * lookup; their validators come from the loaded user.
+     * 
+     * @param email the email ID of the requested user
+     * @param request the current request
+     * @return true if the client's copy is current and no body should be written
+     */
+    private boolean isNotModified(String email, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            return false;
+        }
+        Optional<UserVersionDTO> version = userService.getUserVersion(email);
+        return version.isPresent() && request.checkNotModified(
+                eTag(version.get().getId(), version.get().getVersion()), lastModified(version.get().getUpdatedAt()));
+    }
+    
+    /**
+     * @param user the loaded user
+     * @return a 200 response carrying the user with its ETag and Last-Modified headers
+     */
+    private static ResponseEntity<User> withValidators(User user) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag(user.getId(), user.getVersion()));
+        if (user.getUpdatedAt() != null) {
+            response.lastModified(lastModified(user.getUpdatedAt()));
+        }
+        return response.body(user);
+    }
+    
+    // Strong tag: the ID keeps a recreated user from matching an old copy
+    private static String eTag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+    
+    private static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
-}
\ No newline at end of file
+}
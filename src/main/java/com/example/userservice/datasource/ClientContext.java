@@ -0,0 +1,28 @@
+package com.example.userservice.datasource;
+
+/**
+ * Identity of the client whose request is being handled on the current
+ * thread, set by {@link ClientContextFilter}.
+ */
+public final class ClientContext {
+
+    private static final ThreadLocal<String> CLIENT_ID = new ThreadLocal<>();
+
+    private ClientContext() {
+    }
+
+    /**
+     * @return the current client ID, or null outside a request
+     */
+    public static String currentClientId() {
+        return CLIENT_ID.get();
+    }
+
+    static void set(String clientId) {
+        CLIENT_ID.set(clientId);
+    }
+
+    static void clear() {
+        CLIENT_ID.remove();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.userservice.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Exposes the calling client to {@link ClientContext} for the duration of the
+ * request. The client is identified by a header when the caller sends one,
+ * otherwise by its remote address.
+ *
+ * <p>Behind a reverse proxy or load balancer the remote address is the
+ * proxy's, so without the header all clients share one identity and one
+ * client's write keeps everyone on the primary. Have the proxy send the
+ * header, or set {@code server.forward-headers-strategy} so the remote
+ * address is taken from {@code X-Forwarded-For}.
+ */
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    private final String clientHeader;
+
+    public ClientContextFilter(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientId = request.getHeader(clientHeader);
+        ClientContext.set(StringUtils.hasText(clientId) ? clientId : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientContext.clear();
+        }
+    }
+}
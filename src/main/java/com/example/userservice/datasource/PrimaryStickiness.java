@@ -0,0 +1,50 @@
+package com.example.userservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients committed a write recently. Their reads stay on the
+ * primary until the window has passed, so they see their own writes even if
+ * the replicas are lagging.
+ */
+public class PrimaryStickiness {
+
+    private static final long MAXIMUM_CLIENTS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public PrimaryStickiness(Duration window) {
+        this(window, Ticker.systemTicker());
+    }
+
+    PrimaryStickiness(Duration window, Ticker ticker) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_CLIENTS)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Starts (or restarts) the sticky window for a client.
+     *
+     * @param clientId the client that committed a write, may be null
+     */
+    public void recordWrite(String clientId) {
+        if (clientId != null) {
+            recentWriters.put(clientId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @param clientId the client issuing a read, may be null
+     * @return true if the client wrote within the window and must read from the primary
+     */
+    public boolean isSticky(String clientId) {
+        return clientId != null && recentWriters.getIfPresent(clientId) != null;
+    }
+}
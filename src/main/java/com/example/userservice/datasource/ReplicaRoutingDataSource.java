@@ -0,0 +1,182 @@
+package com.example.userservice.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, round-robin, and everything
+ * else to the primary. A client that committed a write within the
+ * {@link PrimaryStickiness} window keeps reading from the primary. Only a
+ * transaction that actually executed an insert, update or delete starts the
+ * window; a read-write transaction that only read does not.
+ *
+ * <p>The routing decision reads the transaction's read-only flag, which is
+ * only set after the transaction manager has asked for a connection, so this
+ * data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final List<DataSource> replicas;
+    private final PrimaryStickiness stickiness;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // Bound to the transaction once its first write has registered the stickiness callback
+    private final Object writeMarker = new Object();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                    PrimaryStickiness stickiness) {
+        this.replicas = List.copyOf(replicas);
+        this.stickiness = stickiness;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !routesReadsToReplica()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * @return true if a read-only transaction started now by the current
+     *         client would read from a replica, and so may see stale rows
+     */
+    public boolean routesReadsToReplica() {
+        return !replicaKeys.isEmpty() && !stickiness.isSticky(ClientContext.currentClientId());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+
+    private Connection trackWrites(Connection connection) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return connection;
+        }
+        String clientId = ClientContext.currentClientId();
+        return WriteTracking.wrap(connection, Connection.class, () -> onWrite(clientId));
+    }
+
+    private void onWrite(String clientId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stickiness.recordWrite(clientId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+            }
+        });
+    }
+
+    /**
+     * Closes the replica pools. The primary is managed separately.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Proxies a connection and the statements it creates, reporting every
+     * statement that may have changed rows.
+     */
+    private static final class WriteTracking implements InvocationHandler {
+
+        private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement",
+                "prepareCall");
+        private static final Set<String> WRITES = Set.of("executeUpdate", "executeLargeUpdate", "executeBatch",
+                "executeLargeBatch");
+
+        private final Object target;
+        private final Runnable onWrite;
+
+        private WriteTracking(Object target, Runnable onWrite) {
+            this.target = target;
+            this.onWrite = onWrite;
+        }
+
+        private static <T> T wrap(T target, Class<T> type, Runnable onWrite) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new WriteTracking(target, onWrite)));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            String name = method.getName();
+            if (STATEMENT_FACTORIES.contains(name)) {
+                return wrapStatement(result);
+            }
+            // execute() returns false when the statement produced an update count rather than rows
+            if (WRITES.contains(name) || ("execute".equals(name) && Boolean.FALSE.equals(result))) {
+                onWrite.run();
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Object statement) {
+            if (statement instanceof CallableStatement callable) {
+                return wrap(callable, CallableStatement.class, onWrite);
+            }
+            if (statement instanceof PreparedStatement prepared) {
+                return wrap(prepared, PreparedStatement.class, onWrite);
+            }
+            return wrap((Statement) statement, Statement.class, onWrite);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.userservice.datasource;
+
+import lombok.Data;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing settings ({@code user.datasource.routing.*}).
+ */
+@Data
+@ConfigurationProperties("user.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replicas.
+     */
+    private boolean enabled;
+
+    /**
+     * How long a client keeps reading from the primary after committing a write.
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    /**
+     * Request header identifying the client; the remote address is used when absent.
+     * Behind a proxy or load balancer, have it set this header, or set
+     * server.forward-headers-strategy, or every client shares the proxy's address.
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Replica connection settings (url, username, password), in the same form as spring.datasource.
+     */
+    private List<DataSourceProperties> replicas = new ArrayList<>();
+}
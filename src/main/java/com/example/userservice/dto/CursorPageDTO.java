@@ -0,0 +1,68 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.exception.InvalidInputException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a keyset-paginated listing.
+ * The cursor is opaque to clients and encodes the last ID of the page.
+ * 
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    /**
+     * Items of the current page, in ascending ID order.
+     */
+    private List<T> items;
+
+    /**
+     * Cursor to pass as {@code after} for the next page, or null on the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Encodes the last ID of a page into an opaque cursor.
+     * 
+     * @param id the last ID of the page
+     * @return the URL-safe cursor
+     */
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor(Long)}.
+     * 
+     * @param cursor the cursor from a previous page
+     * @return the last ID of the previous page
+     * @throws InvalidInputException if the cursor is malformed
+     */
+    public static Long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the common error below
+        }
+        throw new InvalidInputException("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.hotkey.HotKeyTracker.HotKey;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the heaviest lookup keys over the recent window.
+ * 
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotKeysDTO {
+
+    /**
+     * Length of the window the counts cover, in seconds.
+     */
+    private long windowSeconds;
+
+    /**
+     * Most looked-up emails, masked with a fingerprint, most frequent first.
+     */
+    private List<HotKey<String>> emails;
+
+    /**
+     * Most looked-up user IDs, most frequent first.
+     */
+    private List<HotKey<Long>> ids;
+}
@@ -0,0 +1,31 @@
+package com.example.userservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for batch email lookup requests.
+ * 
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserLookupRequestDTO {
+
+    /**
+     * Emails to resolve. Matching is case-insensitive; duplicates are resolved once.
+     */
+    @NotEmpty(message = "Emails cannot be empty")
+    @Size(max = 1000, message = "At most 1000 emails can be looked up per request")
+    private List<String> emails;
+}
@@ -0,0 +1,33 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for batch email lookup responses.
+ * 
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserLookupResponseDTO {
+
+    /**
+     * Users found, in the order their emails first appeared in the request.
+     */
+    private List<User> users;
+
+    /**
+     * Requested emails that are invalid or have no matching user, as sent.
+     */
+    private List<String> misses;
+}
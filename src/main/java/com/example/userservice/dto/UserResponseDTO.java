@@ -11,6 +11,8 @@ import java.time.LocalDateTime;
 /**
  * Data Transfer Object for user response.
  * Contains user information to be returned to the client.
+ * The all-args constructor is used by the JPQL projections in
+ * UserRepository, so the field order must match them.
  * 
  * @author Automation Engineer
  * @version 1.0.0
@@ -42,16 +44,6 @@ public class UserResponseDTO {
      */
     private String phone;
 
-    /**
-     * Department or organization the user belongs to.
-     */
-    private String department;
-
-    /**
-     * Current status of the user account.
-     */
-    private String status;
-
     /**
      * Timestamp when the user was created.
      */
@@ -63,4 +55,4 @@ public class UserResponseDTO {
      */
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+}
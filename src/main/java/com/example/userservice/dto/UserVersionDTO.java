@@ -0,0 +1,49 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of a user, used to answer conditional requests without loading
+ * or serializing the full user.
+ * 
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserVersionDTO {
+
+    /**
+     * Unique identifier of the user.
+     */
+    private Long id;
+
+    /**
+     * Optimistic lock version, incremented on every update.
+     */
+    private Long version;
+
+    /**
+     * Timestamp when the user was last updated, or null if never recorded.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * Creates the version of an already loaded user.
+     *
+     * @param user the user entity
+     * @return the user's version
+     */
+    public static UserVersionDTO of(User user) {
+        return new UserVersionDTO(user.getId(), user.getVersion(), user.getUpdatedAt());
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
@@ -16,34 +17,51 @@ import java.time.LocalDateTime;
 @Slf4j
 public class GlobalExceptionHandler {
     
+    private static final int NOT_FOUND_STATUS = HttpStatus.NOT_FOUND.value();
+    private static final String NOT_FOUND_REASON = HttpStatus.NOT_FOUND.getReasonPhrase();
+    private static final int BAD_REQUEST_STATUS = HttpStatus.BAD_REQUEST.value();
+    private static final String BAD_REQUEST_REASON = HttpStatus.BAD_REQUEST.getReasonPhrase();
+    
     /**
-     * Handles UserNotFoundException
+     * Handles UserNotFoundException. Misses are routine, so this path logs at
+     * DEBUG and fills the error body from precomputed status fields.
      */
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFoundException(
             UserNotFoundException ex, HttpServletRequest request) {
         
-        log.error("UserNotFoundException: {}", ex.getMessage());
+        log.debug("UserNotFoundException: {}", ex.getMessage());
         
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.NOT_FOUND.value())
-                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
-                .message(ex.getMessage())
-                .path(request.getRequestURI())
-                .build();
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), NOT_FOUND_STATUS,
+                NOT_FOUND_REASON, ex.getMessage(), request.getRequestURI());
         
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
     
     /**
-     * Handles InvalidEmailException
+     * Handles InvalidEmailException. Like misses, bad input is routine and
+     * takes the same DEBUG-only, builder-free path.
      */
     @ExceptionHandler(InvalidEmailException.class)
     public ResponseEntity<ErrorResponse> handleInvalidEmailException(
             InvalidEmailException ex, HttpServletRequest request) {
         
-        log.error("InvalidEmailException: {}", ex.getMessage());
+        log.debug("InvalidEmailException: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), BAD_REQUEST_STATUS,
+                BAD_REQUEST_REASON, ex.getMessage(), request.getRequestURI());
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * Handles InvalidInputException
+     */
+    @ExceptionHandler(InvalidInputException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidInputException(
+            InvalidInputException ex, HttpServletRequest request) {
+        
+        log.error("InvalidInputException: {}", ex.getMessage());
         
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -126,6 +144,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
     
+    /**
+     * Handles missing required request parameters
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleMissingServletRequestParameterException(
+            MissingServletRequestParameterException ex, HttpServletRequest request) {
+        
+        log.error("MissingServletRequestParameterException: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message("Missing required parameter: " + ex.getParameterName())
+                .path(request.getRequestURI())
+                .build();
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+    
     /**
      * Handles all other exceptions
      */
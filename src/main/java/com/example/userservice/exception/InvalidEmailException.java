@@ -1,6 +1,10 @@
 package com.example.userservice.exception;
 
-public class InvalidEmailException extends RuntimeException {
+/**
+ * Thrown when a lookup is given an email that is not a valid address.
+ * Answered with 400 Bad Request.
+ */
+public class InvalidEmailException extends StacklessException {
     
     public InvalidEmailException(String message) {
         super(message);
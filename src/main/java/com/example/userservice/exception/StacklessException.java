@@ -0,0 +1,18 @@
+package com.example.userservice.exception;
+
+/**
+ * Base for exceptions thrown on routine, expected outcomes such as a lookup
+ * miss. These are created often and never logged with a trace, so they skip
+ * filling in the stack trace and the suppression list, which is most of what
+ * makes an exception expensive to create.
+ */
+public abstract class StacklessException extends RuntimeException {
+    
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+    
+    protected StacklessException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
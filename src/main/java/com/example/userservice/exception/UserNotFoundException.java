@@ -1,6 +1,10 @@
 package com.example.userservice.exception;
 
-public class UserNotFoundException extends RuntimeException {
+/**
+ * Thrown when no user matches the requested email or ID. Answered with
+ * 404 Not Found.
+ */
+public class UserNotFoundException extends StacklessException {
     
     public UserNotFoundException(String message) {
         super(message);
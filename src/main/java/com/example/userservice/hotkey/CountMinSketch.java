@@ -0,0 +1,77 @@
+package com.example.userservice.hotkey;
+
+import com.example.userservice.util.Hashing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch: a fixed {@code depth x width} grid of counters giving
+ * per-key frequency estimates that never undercount and overcount by at most
+ * about {@code e / width} of the total with probability {@code 1 - e^-depth}.
+ *
+ * <p>Counters are atomic increments, so concurrent writers need no locking.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth number of rows (independent hash functions)
+     * @param width counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Invalid sketch size: depth=" + depth + ", width=" + width);
+        }
+        int rowWidth = Integer.highestOneBit(width - 1) << 1;
+        this.depth = depth;
+        this.mask = Math.max(1, rowWidth) - 1;
+        this.counters = new AtomicLongArray(depth * (mask + 1));
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param key the key
+     * @return the key's estimated count, including this occurrence
+     */
+    long add(Object key) {
+        long hash1 = hash(key);
+        long hash2 = Hashing.mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash1, hash2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @param key the key
+     * @return the key's estimated count, never less than its true count
+     */
+    long estimate(Object key) {
+        long hash1 = hash(key);
+        long hash2 = Hashing.mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash1, hash2)));
+        }
+        return estimate;
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int index(int row, long hash1, long hash2) {
+        return row * (mask + 1) + (int) ((hash1 + row * hash2) & mask);
+    }
+
+    private static long hash(Object key) {
+        return key instanceof String value ? Hashing.hash(value) : Hashing.mix(key.hashCode());
+    }
+}
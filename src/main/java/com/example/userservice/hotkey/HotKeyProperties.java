@@ -0,0 +1,42 @@
+package com.example.userservice.hotkey;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Hot key tracking settings ({@code user.hotkeys.*}), shared by the email
+ * and ID lookup trackers.
+ */
+@Data
+@ConfigurationProperties("user.hotkeys")
+public class HotKeyProperties {
+
+    /**
+     * Length of the sliding window the heavy hitters are reported over.
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Number of slices the window is divided into; the window advances one
+     * slice at a time.
+     */
+    private int slices = 6;
+
+    /**
+     * Candidate keys tracked per slice; bounds how many heavy hitters can be reported.
+     */
+    private int capacity = 100;
+
+    /**
+     * Count-Min sketch rows per slice.
+     */
+    private int depth = 4;
+
+    /**
+     * Count-Min sketch counters per row, rounded up to a power of two.
+     * Estimates overcount by at most about 2.7 / width of a slice's lookups.
+     */
+    private int width = 2048;
+}
@@ -0,0 +1,154 @@
+package com.example.userservice.hotkey;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the most frequent keys of a lookup path over a sliding time window,
+ * in fixed memory however many distinct keys are seen.
+ *
+ * <p>The window is divided into slices. Each slice has its own
+ * {@link CountMinSketch} and {@link SpaceSaving} candidate set; recording
+ * touches only the current slice, and when a slice falls out of the window
+ * it is cleared and reused. Counts reported by {@link #top(int)} are the
+ * sketch estimates summed over the window, so they may overcount slightly
+ * but never undercount.
+ */
+public class HotKeyTracker<K> {
+
+    private final String name;
+    private final Slice<K>[] slices;
+    private final long sliceMillis;
+    private final LongSupplier clock;
+    private volatile long currentSlice;
+
+    public HotKeyTracker(String name, HotKeyProperties properties) {
+        this(name, properties, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    HotKeyTracker(String name, HotKeyProperties properties, LongSupplier clock) {
+        if (properties.getSlices() <= 0 || properties.getWindow().toMillis() < properties.getSlices()) {
+            throw new IllegalArgumentException("Invalid hot key window: window=" + properties.getWindow()
+                    + ", slices=" + properties.getSlices());
+        }
+        this.name = name;
+        this.slices = new Slice[properties.getSlices()];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new Slice<>(properties);
+        }
+        this.sliceMillis = properties.getWindow().toMillis() / slices.length;
+        this.clock = clock;
+        this.currentSlice = clock.getAsLong() / sliceMillis;
+    }
+
+    /**
+     * Counts one lookup of a key.
+     *
+     * @param key the looked-up key, not null
+     */
+    public void record(K key) {
+        long slice = clock.getAsLong() / sliceMillis;
+        if (slice != currentSlice) {
+            advance(slice);
+        }
+        Slice<K> current = slices[(int) (slice % slices.length)];
+        current.candidates.offer(key, current.sketch.add(key));
+    }
+
+    /**
+     * Returns the heaviest keys over the current window.
+     *
+     * @param limit maximum number of keys to return
+     * @return keys with their estimated lookup counts, most frequent first
+     */
+    public List<HotKey<K>> top(int limit) {
+        advance(clock.getAsLong() / sliceMillis);
+        Set<K> candidates = new HashSet<>();
+        for (Slice<K> slice : slices) {
+            candidates.addAll(slice.candidates.keys());
+        }
+
+        List<HotKey<K>> hotKeys = new ArrayList<>(candidates.size());
+        for (K key : candidates) {
+            long count = 0;
+            for (Slice<K> slice : slices) {
+                count += slice.sketch.estimate(key);
+            }
+            hotKeys.add(new HotKey<>(key, count));
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey<K>::getCount).reversed());
+        return hotKeys.subList(0, Math.min(limit, hotKeys.size()));
+    }
+
+    /**
+     * Forgets every key recorded so far, e.g. after synthetic warm-up lookups.
+     */
+    public synchronized void clear() {
+        for (Slice<K> slice : slices) {
+            slice.clear();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(sliceMillis * slices.length);
+    }
+
+    private synchronized void advance(long slice) {
+        if (slice <= currentSlice) {
+            return;
+        }
+        // Clear every slice that has left the window since the last advance
+        for (long expired = Math.max(currentSlice + 1, slice - slices.length + 1); expired <= slice; expired++) {
+            slices[(int) (expired % slices.length)].clear();
+        }
+        currentSlice = slice;
+    }
+
+    /**
+     * A key and its estimated number of lookups in the window.
+     */
+    public static final class HotKey<K> {
+
+        private final K key;
+        private final long count;
+
+        public HotKey(K key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    private static final class Slice<K> {
+
+        private final CountMinSketch sketch;
+        private final SpaceSaving<K> candidates;
+
+        private Slice(HotKeyProperties properties) {
+            this.sketch = new CountMinSketch(properties.getDepth(), properties.getWidth());
+            this.candidates = new SpaceSaving<>(properties.getCapacity());
+        }
+
+        private void clear() {
+            candidates.clear();
+            sketch.clear();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.userservice.hotkey;
+
+import com.example.userservice.dto.HotKeysDTO;
+import com.example.userservice.hotkey.HotKeyTracker.HotKey;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/hotkeys}) reporting the emails and IDs
+ * that dominate lookups over the recent window. Like every actuator
+ * endpoint it is only served once exposed through
+ * {@code management.endpoints.web.exposure.include}, so it can be kept on
+ * the management port and behind its access rules.
+ *
+ * <p>Emails are never reported in full: each is masked to its first
+ * character and domain, followed by a short SHA-256 fingerprint that tells
+ * hot keys apart and lets an operator confirm a suspected email.
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 100;
+    private static final int FINGERPRINT_BYTES = 4;
+
+    private final HotKeyTracker<String> emailHotKeys;
+    private final HotKeyTracker<Long> idHotKeys;
+
+    public HotKeysEndpoint(HotKeyTracker<String> emailHotKeys, HotKeyTracker<Long> idHotKeys) {
+        this.emailHotKeys = emailHotKeys;
+        this.idHotKeys = idHotKeys;
+    }
+
+    /**
+     * Reports the heaviest keys of each lookup path. Counts are estimates
+     * that may overcount slightly.
+     *
+     * @param limit maximum number of keys reported per lookup path, 1 to 100; 10 if absent
+     * @return the heaviest masked emails and IDs
+     */
+    @ReadOperation
+    public HotKeysDTO hotKeys(@Nullable Integer limit) {
+        int top = limit != null ? limit : DEFAULT_LIMIT;
+        if (top < 1 || top > MAX_LIMIT) {
+            throw new InvalidEndpointRequestException("Limit must be between 1 and " + MAX_LIMIT,
+                    "limit out of range");
+        }
+        List<HotKey<String>> emails = emailHotKeys.top(top).stream()
+                .map(hotKey -> new HotKey<>(mask(hotKey.getKey()), hotKey.getCount()))
+                .toList();
+        return HotKeysDTO.builder()
+                .windowSeconds(emailHotKeys.getWindow().toSeconds())
+                .emails(emails)
+                .ids(idHotKeys.top(top))
+                .build();
+    }
+
+    /**
+     * Masks a normalized email, e.g. {@code john.doe@example.com} to
+     * {@code j***@example.com#1a2b3c4d}.
+     *
+     * @param email the normalized email
+     * @return the masked email with its fingerprint
+     */
+    static String mask(String email) {
+        int at = email.lastIndexOf('@');
+        String local = at > 0 ? email.substring(0, 1) + "***" : "***";
+        String domain = at >= 0 ? email.substring(at) : "";
+        return local + domain + "#" + fingerprint(email);
+    }
+
+    private static String fingerprint(String email) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(email.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
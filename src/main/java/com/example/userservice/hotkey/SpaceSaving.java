@@ -0,0 +1,98 @@
+package com.example.userservice.hotkey;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Space-Saving candidate set: at most {@code capacity} keys, each with a
+ * count, where a new key may only displace the key with the lowest count.
+ *
+ * <p>Counts come from a {@link CountMinSketch} that sees every occurrence,
+ * so a newcomer is admitted with its full estimated history instead of the
+ * classic "minimum + 1", and only when that beats the current minimum. Keys
+ * already tracked are updated without locking. Admission takes a lock, but
+ * never waits for it: a contended admission is dropped and retried on the
+ * key's next occurrence, which the sketch has counted anyway.
+ */
+final class SpaceSaving<K> {
+
+    private final int capacity;
+    private final ConcurrentHashMap<K, AtomicLong> counts;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Lowest tracked count when full, so most untracked keys are turned away without the lock
+    private volatile long admissionThreshold;
+
+    SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counts = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    /**
+     * Offers an occurrence of a key.
+     *
+     * @param key the key
+     * @param estimate the key's estimated count, including this occurrence
+     */
+    void offer(K key, long estimate) {
+        AtomicLong count = counts.get(key);
+        if (count != null) {
+            count.accumulateAndGet(estimate, Math::max);
+            return;
+        }
+        if (estimate <= admissionThreshold || !lock.tryLock()) {
+            return;
+        }
+        try {
+            if (counts.containsKey(key)) {
+                return;
+            }
+            if (counts.size() >= capacity) {
+                Map.Entry<K, AtomicLong> min = minimum();
+                if (min.getValue().get() >= estimate) {
+                    admissionThreshold = min.getValue().get();
+                    return;
+                }
+                counts.remove(min.getKey());
+            }
+            counts.put(key, new AtomicLong(estimate));
+            if (counts.size() >= capacity) {
+                admissionThreshold = minimum().getValue().get();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the tracked keys; a live view, weakly consistent under updates
+     */
+    Set<K> keys() {
+        return counts.keySet();
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            counts.clear();
+            admissionThreshold = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map.Entry<K, AtomicLong> minimum() {
+        Map.Entry<K, AtomicLong> min = null;
+        for (Map.Entry<K, AtomicLong> entry : counts.entrySet()) {
+            if (min == null || entry.getValue().get() < min.getValue().get()) {
+                min = entry;
+            }
+        }
+        return min;
+    }
+}
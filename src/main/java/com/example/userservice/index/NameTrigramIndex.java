@@ -0,0 +1,218 @@
+package com.example.userservice.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram inverted index over user names.
+ *
+ * <p>Each lower-cased name is split into overlapping three-character grams and
+ * the user ID is added to the posting list of every gram. A contains-query is
+ * answered by intersecting the posting lists of the query's grams, starting
+ * from the shortest, and then checking the surviving candidates against the
+ * stored name. Queries shorter than three characters cannot be answered and
+ * are left to the database.
+ */
+@Component
+public class NameTrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<Long, PostingList> postings = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Indexes or re-indexes the name of a user.
+     *
+     * @param id the user ID
+     * @param name the user name
+     */
+    public void put(Long id, String name) {
+        if (id == null || name == null) {
+            return;
+        }
+        String normalized = normalize(name);
+        names.compute(id, (key, previous) -> {
+            if (previous != null) {
+                if (previous.equals(normalized)) {
+                    return previous;
+                }
+                for (long gram : grams(previous)) {
+                    PostingList list = postings.get(gram);
+                    if (list != null) {
+                        list.remove(key);
+                    }
+                }
+            }
+            for (long gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(key);
+            }
+            return normalized;
+        });
+    }
+
+    /**
+     * Removes a user from the index.
+     *
+     * @param id the user ID
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        names.computeIfPresent(id, (key, previous) -> {
+            for (long gram : grams(previous)) {
+                PostingList list = postings.get(gram);
+                if (list != null) {
+                    list.remove(key);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds the IDs of users whose name contains the query, ignoring case.
+     *
+     * @param query the substring to search for
+     * @return matching IDs in ascending order, or empty if the index cannot
+     *         answer (not loaded yet, or query shorter than three characters)
+     */
+    public Optional<List<Long>> search(String query) {
+        String normalized = normalize(query);
+        if (!ready || normalized.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+
+        long[] queryGrams = Arrays.stream(grams(normalized)).distinct().toArray();
+        List<PostingList> lists = new ArrayList<>(queryGrams.length);
+        for (long gram : queryGrams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return Optional.of(List.of());
+            }
+            lists.add(list);
+        }
+        // Drive the intersection from the shortest posting list
+        int shortest = 0;
+        for (int i = 1; i < lists.size(); i++) {
+            if (lists.get(i).size() < lists.get(shortest).size()) {
+                shortest = i;
+            }
+        }
+        Collections.swap(lists, 0, shortest);
+
+        long[] candidates = lists.get(0).snapshot();
+        List<Long> matches = new ArrayList<>();
+        for (long id : candidates) {
+            if (containedInAll(lists, id)) {
+                String name = names.get(id);
+                if (name != null && name.contains(normalized)) {
+                    matches.add(id);
+                }
+            }
+        }
+        return Optional.of(matches);
+    }
+
+    /**
+     * Marks the startup load as complete so searches are answered from memory.
+     */
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the number of indexed users.
+     *
+     * @return the indexed user count
+     */
+    public int size() {
+        return names.size();
+    }
+
+    private static boolean containedInAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] grams(String value) {
+        if (value.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] grams = new long[value.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) value.charAt(i) << 32)
+                    | ((long) value.charAt(i + 1) << 16)
+                    | value.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    /**
+     * Sorted array of user IDs for one trigram. IDs are mostly assigned in
+     * increasing order, so inserts are usually appends.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        synchronized void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        synchronized void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        synchronized boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+}
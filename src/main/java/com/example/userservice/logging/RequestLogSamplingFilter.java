@@ -0,0 +1,66 @@
+package com.example.userservice.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes one access log line with key/value fields for a sample of requests.
+ * Each endpoint can have its own sample rate; server errors are always
+ * logged. Requests are identified by their handler pattern rather than their
+ * path, so emails in path variables stay out of the log.
+ */
+public class RequestLogSamplingFilter extends OncePerRequestFilter {
+
+    static final String LOGGER_NAME = "com.example.userservice.access";
+
+    private static final Logger accessLog = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final String UNMATCHED = "unmatched";
+
+    private final double defaultRate;
+    private final Map<String, Double> rates;
+
+    public RequestLogSamplingFilter(RequestLoggingProperties properties) {
+        this.defaultRate = properties.getDefaultRate();
+        this.rates = Map.copyOf(properties.getRates());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (accessLog.isInfoEnabled()) {
+                log(request, response.getStatus(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : UNMATCHED;
+        double rate = rates.getOrDefault(endpoint, defaultRate);
+        if (status < 500 && (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate))) {
+            return;
+        }
+
+        accessLog.atInfo()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("endpoint", endpoint)
+                .addKeyValue("status", status)
+                .addKeyValue("durationMicros", elapsedNanos / 1_000)
+                .addKeyValue("sampleRate", rate)
+                .log("request");
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.userservice.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sampled access log settings ({@code user.logging.requests.*}).
+ */
+@Data
+@ConfigurationProperties("user.logging.requests")
+public class RequestLoggingProperties {
+
+    /**
+     * Whether sampled access log lines are written.
+     */
+    private boolean enabled;
+
+    /**
+     * Fraction of requests logged for endpoints without a rate of their own.
+     */
+    private double defaultRate = 0.01;
+
+    /**
+     * Fraction of requests logged per endpoint, keyed by handler pattern such
+     * as {@code /api/v1/users/{email}}.
+     */
+    private Map<String, Double> rates = new HashMap<>();
+}
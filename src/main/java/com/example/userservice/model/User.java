@@ -1,5 +1,6 @@
 package com.example.userservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -7,13 +8,27 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_email_normalized", columnList = "email_normalized", unique = true),
+        @Index(name = "idx_users_updated_at", columnList = "updated_at")
+})
+@EntityListeners(UserEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class User {
     
     @Id
@@ -25,6 +40,14 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
     
+    /**
+     * Trimmed, lower-cased copy of {@link #email}, maintained on every write so
+     * case-insensitive lookups can use a plain index instead of LOWER(email).
+     */
+    @JsonIgnore
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+    
     @NotBlank(message = "Name is required")
     @Column(nullable = false)
     private String name;
@@ -46,4 +69,47 @@ public class User {
     
     @Column
     private String country;
+    
+    /**
+     * Incremented by Hibernate on every update; the basis of the user's ETag.
+     */
+    @JsonIgnore
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    void syncEmailNormalized() {
+        this.emailNormalized = normalizeEmail(email);
+    }
+    
+    /**
+     * Returns a detached copy of this user, safe to share outside the
+     * persistence context that loaded it.
+     * 
+     * @return a shallow copy with the same field values
+     */
+    public User copy() {
+        return toBuilder().build();
+    }
+    
+    /**
+     * Normalizes an email into the form stored in {@code email_normalized}.
+     * 
+     * @param email the raw email
+     * @return the trimmed, lower-cased email, or null if email is null
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
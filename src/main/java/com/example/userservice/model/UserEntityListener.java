@@ -0,0 +1,91 @@
+package com.example.userservice.model;
+
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.cache.UserEmailCache;
+import com.example.userservice.index.NameTrigramIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps in-memory lookup structures in step with
+ * writes to {@link User}. Instantiated by Hibernate through Spring's bean
+ * container so it can receive Spring-managed collaborators.
+ */
+@Component
+public class UserEntityListener {
+
+    private final UserEmailCache emailCache;
+    private final EmailBloomFilter emailBloomFilter;
+    private final NameTrigramIndex nameTrigramIndex;
+
+    public UserEntityListener(UserEmailCache emailCache, EmailBloomFilter emailBloomFilter,
+                              NameTrigramIndex nameTrigramIndex) {
+        this.emailCache = emailCache;
+        this.emailBloomFilter = emailBloomFilter;
+        this.nameTrigramIndex = nameTrigramIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        // A put left behind by a rollback only costs a false positive
+        emailBloomFilter.put(user.getEmail());
+        Long id = user.getId();
+        String name = user.getName();
+        afterCommit(() -> nameTrigramIndex.put(id, name));
+        onWrite(user);
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        Long id = user.getId();
+        afterCommit(() -> nameTrigramIndex.remove(id));
+        onWrite(user, null);
+    }
+
+    private void onWrite(User user) {
+        onWrite(user, user.getVersion());
+    }
+
+    private void onWrite(User user, Long committedVersion) {
+        evict(user);
+
+        // Once the write is visible, stop older rows - from a concurrent
+        // reader or a lagging replica - being cached, and evict again in case
+        // one was put before commit. A deleted user is never cached again.
+        Long id = user.getId();
+        afterCommit(() -> {
+            emailCache.recordWrite(id, committedVersion);
+            evict(user);
+        });
+    }
+
+    /**
+     * Runs an action once the current transaction has committed, so a
+     * rolled-back write never reaches the in-memory structures; runs it
+     * immediately outside a transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void evict(User user) {
+        emailCache.invalidateUser(user.getId());
+        if (user.getEmail() != null) {
+            emailCache.invalidate(user.getEmail());
+        }
+    }
+}
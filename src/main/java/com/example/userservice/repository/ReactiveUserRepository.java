@@ -0,0 +1,104 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.dto.UserResponseDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Non-blocking, read-only user queries over R2DBC. Rows are mapped straight
+ * to {@link UserResponseDTO}; all writes stay on {@link UserRepository}.
+ *
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+@Repository
+public class ReactiveUserRepository {
+
+    private static final String SELECT_USERS = "SELECT id, name, email, phone, created_at, updated_at FROM users";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds a user by the indexed email_normalized column.
+     *
+     * @param emailNormalized the trimmed, lower-cased email
+     * @return the user, or an empty Mono if none matches
+     */
+    public Mono<UserResponseDTO> findByEmailNormalized(String emailNormalized) {
+        return databaseClient.sql(SELECT_USERS + " WHERE email_normalized = :email")
+                .bind("email", emailNormalized)
+                .map(ReactiveUserRepository::toDTO)
+                .one();
+    }
+
+    /**
+     * Finds users by primary key, in ID order. All IDs are bound into one
+     * IN (...) list, so callers pass them in bounded chunks.
+     *
+     * @param ids the user IDs
+     * @return the users that exist
+     */
+    public Flux<UserResponseDTO> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(SELECT_USERS + " WHERE id IN (:ids) ORDER BY id")
+                .bind("ids", ids)
+                .map(ReactiveUserRepository::toDTO)
+                .all();
+    }
+
+    /**
+     * Finds users whose name contains the given text, ignoring case.
+     *
+     * @param name the text to search for
+     * @return the matching users, in ID order
+     */
+    public Flux<UserResponseDTO> findByNameContainingIgnoreCase(String name) {
+        return databaseClient.sql(SELECT_USERS + " WHERE LOWER(name) LIKE :pattern ESCAPE '\\' ORDER BY id")
+                .bind("pattern", "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%")
+                .map(ReactiveUserRepository::toDTO)
+                .all();
+    }
+
+    /**
+     * Streams every user in ID order. Rows are pulled from the database only
+     * as fast as the subscriber requests them.
+     *
+     * @return all users
+     */
+    public Flux<UserResponseDTO> findAll() {
+        return databaseClient.sql(SELECT_USERS + " ORDER BY id")
+                .map(ReactiveUserRepository::toDTO)
+                .all();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static UserResponseDTO toDTO(Readable row) {
+        return UserResponseDTO.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .phone(row.get("phone", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.userservice.repository;
+
+/**
+ * Projection of the user columns needed to build the in-memory lookup indexes.
+ */
+public interface UserKeyView {
+
+    Long getId();
+
+    String getEmailNormalized();
+
+    String getName();
+}
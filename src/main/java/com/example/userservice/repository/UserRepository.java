@@ -1,16 +1,124 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.dto.UserVersionDTO;
 import com.example.userservice.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserStore {
     
-    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
-    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+    /**
+     * Query cache regions, configured in ehcache.xml.
+     */
+    String EMAIL_QUERY_REGION = "user-query-email";
+    String NAME_QUERY_REGION = "user-query-name";
+    
+    /**
+     * Selects only the columns of {@link UserResponseDTO} straight into the DTO,
+     * so list queries neither hydrate entities nor grow the persistence context.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.example.userservice.dto.UserResponseDTO("
+            + "u.id, u.name, u.email, u.phone, u.createdAt, u.updatedAt) FROM User u";
+    
+    /**
+     * Results are kept in the query cache and invalidated on any write to users.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EMAIL_QUERY_REGION)
+    })
+    @Override
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    /**
+     * Declared again so calls on this interface resolve to one method rather
+     * than both the {@link UserStore} and the CrudRepository declaration.
+     */
+    @Override
+    Optional<User> findById(Long id);
+    
+    /**
+     * Version of the user with the given normalized email, for conditional
+     * requests. Results are kept in the query cache and invalidated on any
+     * write to users.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EMAIL_QUERY_REGION)
+    })
+    @Query("SELECT new com.example.userservice.dto.UserVersionDTO(u.id, u.version, u.updatedAt)"
+            + " FROM User u WHERE u.emailNormalized = :email")
+    @Override
+    Optional<UserVersionDTO> findVersionByEmailNormalized(@Param("email") String emailNormalized);
+    
+    @Override
+    List<User> findByEmailNormalizedIn(Collection<String> emailsNormalized);
+    
+    /**
+     * Users whose name contains the given text, ignoring case. Results are kept
+     * in the query cache and invalidated on any write to users.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NAME_QUERY_REGION)
+    })
+    @Query(RESPONSE_PROJECTION + " WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', ?#{escape([0])}, '%'))"
+            + " ESCAPE ?#{escapeCharacter()} ORDER BY u.id")
+    @Override
+    List<UserResponseDTO> findResponsesByNameContaining(String name);
+    
+    @Query(RESPONSE_PROJECTION + " WHERE u.id IN :ids ORDER BY u.id")
+    @Override
+    List<UserResponseDTO> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(RESPONSE_PROJECTION + " ORDER BY u.id")
+    @Override
+    List<UserResponseDTO> findAllResponses();
+    
+    @Query(RESPONSE_PROJECTION + " WHERE u.id > :afterId ORDER BY u.id")
+    @Override
+    List<UserResponseDTO> findResponsesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Streams all users through a forward-only cursor. Must be consumed inside
+     * a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(RESPONSE_PROJECTION + " ORDER BY u.id")
+    @Override
+    Stream<UserResponseDTO> streamAllResponses();
+    
+    @Query("SELECT u.id AS id, u.emailNormalized AS emailNormalized, u.name AS name FROM User u")
+    @Override
+    Stream<UserKeyView> streamAllKeys();
+    
+    /**
+     * Users created or updated at or after the given time, used to refresh
+     * the lookup indexes with writes made by other instances.
+     */
+    @Query("SELECT u.id AS id, u.emailNormalized AS emailNormalized, u.name AS name FROM User u"
+            + " WHERE u.updatedAt >= :since")
+    @Override
+    List<UserKeyView> findKeysUpdatedSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Most recently created or updated users first, used to warm the caches at startup.
+     */
+    @Query("SELECT u FROM User u ORDER BY u.updatedAt DESC NULLS LAST, u.id DESC")
+    @Override
+    List<User> findRecentlyUpdated(Pageable pageable);
 }
\ No newline at end of file
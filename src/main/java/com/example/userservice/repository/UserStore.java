@@ -0,0 +1,78 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.dto.UserVersionDTO;
+import com.example.userservice.model.User;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The user queries the services issue. Implemented by the JPA
+ * {@link UserRepository} and, when sharding is enabled, by
+ * {@link com.example.userservice.shard.ShardedUserRepository}; a query added
+ * here must be implemented by both before the code compiles.
+ */
+public interface UserStore {
+
+    /**
+     * Case-insensitive email lookup backed by the indexed email_normalized column.
+     */
+    default Optional<User> findByEmailIgnoreCase(String email) {
+        return findByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    /**
+     * Version of the user with the given normalized email, for conditional requests.
+     */
+    Optional<UserVersionDTO> findVersionByEmailNormalized(String emailNormalized);
+
+    List<User> findByEmailNormalizedIn(Collection<String> emailsNormalized);
+
+    Optional<User> findById(Long id);
+
+    /**
+     * Users whose name contains the given text, ignoring case, in ascending ID order.
+     */
+    List<UserResponseDTO> findResponsesByNameContaining(String name);
+
+    List<UserResponseDTO> findResponsesByIdIn(Collection<Long> ids);
+
+    List<UserResponseDTO> findAllResponses();
+
+    /**
+     * Keyset page: users with IDs above {@code afterId}, in ascending ID order.
+     */
+    List<UserResponseDTO> findResponsesAfterId(Long afterId, Pageable pageable);
+
+    /**
+     * Streams all users in ascending ID order through forward-only cursors.
+     * Must be closed afterwards.
+     */
+    Stream<UserResponseDTO> streamAllResponses();
+
+    /**
+     * Streams the lookup keys of all users through forward-only cursors, in
+     * no particular order. Must be closed afterwards.
+     */
+    Stream<UserKeyView> streamAllKeys();
+
+    /**
+     * Users created or updated at or after the given time, used to refresh
+     * the lookup indexes with writes made by other instances.
+     */
+    List<UserKeyView> findKeysUpdatedSince(LocalDateTime since);
+
+    /**
+     * Most recently created or updated users first, used to warm the caches at startup.
+     */
+    List<User> findRecentlyUpdated(Pageable pageable);
+
+    long count();
+}
@@ -0,0 +1,121 @@
+package com.example.userservice.service;
+
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.exception.InvalidEmailException;
+import com.example.userservice.exception.InvalidInputException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.index.NameTrigramIndex;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.ReactiveUserRepository;
+import com.example.userservice.validation.EmailValidator;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking counterpart of the read operations in {@link UserService} and
+ * {@link UserServiceImpl}. No thread is held while a query is in flight.
+ * The in-memory Bloom filter and name index are consulted exactly as on the
+ * blocking path.
+ *
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+@Service
+public class ReactiveUserService {
+
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final EmailBloomFilter emailBloomFilter;
+    private final NameTrigramIndex nameTrigramIndex;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository reactiveUserRepository,
+                               EmailBloomFilter emailBloomFilter,
+                               NameTrigramIndex nameTrigramIndex) {
+        this.reactiveUserRepository = reactiveUserRepository;
+        this.emailBloomFilter = emailBloomFilter;
+        this.nameTrigramIndex = nameTrigramIndex;
+    }
+
+    /**
+     * Retrieves a user by email, ignoring case.
+     *
+     * @param email the email ID to search for
+     * @return the user, or an error signal with {@link InvalidEmailException}
+     *         or {@link UserNotFoundException}
+     */
+    public Mono<UserResponseDTO> getUserByEmail(String email) {
+        if (!EmailValidator.isValid(email)) {
+            return Mono.error(new InvalidEmailException("Invalid email format: " + email));
+        }
+        if (!emailBloomFilter.mightContain(email)) {
+            return Mono.error(new UserNotFoundException("User not found with email: " + email));
+        }
+        return reactiveUserRepository.findByEmailNormalized(User.normalizeEmail(email))
+                .switchIfEmpty(Mono.error(() -> {
+                    emailBloomFilter.recordFalsePositive();
+                    return new UserNotFoundException("User not found with email: " + email);
+                }));
+    }
+
+    /**
+     * Finds users whose name contains the given text, ignoring case.
+     *
+     * @param name the text to search for
+     * @return the matching users in ID order, or an error signal with
+     *         {@link InvalidInputException} if the name is blank or too long
+     */
+    public Flux<UserResponseDTO> findUsersByName(String name) {
+        if (StringUtils.isBlank(name)) {
+            return Flux.error(new InvalidInputException("Name cannot be blank or null"));
+        }
+        String sanitizedName = name.trim();
+        if (sanitizedName.length() > MAX_NAME_LENGTH) {
+            return Flux.error(new InvalidInputException("Name must not exceed 100 characters"));
+        }
+        
+        // Search the trigram index, falling back to LIKE when it cannot answer or matches too many users
+        Optional<List<Long>> candidates = nameTrigramIndex.search(sanitizedName)
+                .filter(ids -> ids.size() <= UserServiceImpl.MAX_INDEX_CANDIDATES);
+        if (candidates.isPresent()) {
+            return findAllByIdInChunks(candidates.get());
+        }
+        return reactiveUserRepository.findByNameContainingIgnoreCase(sanitizedName);
+    }
+
+    /**
+     * Streams all users in ID order, at the pace the subscriber requests them.
+     *
+     * @return all users
+     */
+    public Flux<UserResponseDTO> streamAllUsers() {
+        return reactiveUserRepository.findAll();
+    }
+
+    /**
+     * Fetches users by ID with one query per {@value UserServiceImpl#ID_CHUNK_SIZE}
+     * IDs, run one after another, so no single IN (...) list grows with the
+     * match count.
+     *
+     * @param ids the IDs to fetch, in ascending order
+     * @return the users that exist, in ID order
+     */
+    private Flux<UserResponseDTO> findAllByIdInChunks(List<Long> ids) {
+        List<Flux<UserResponseDTO>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += UserServiceImpl.ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + UserServiceImpl.ID_CHUNK_SIZE, ids.size()));
+            chunks.add(Flux.defer(() -> reactiveUserRepository.findAllById(chunk)));
+        }
+        return Flux.concat(chunks);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.exception.InvalidInputException;
+import com.example.userservice.exception.UserNotFoundException;
+
+import java.util.List;
+
+/**
+ * Read operations on users other than the email lookup in {@link UserService}.
+ *
+ * @author Automation Engineer
+ * @version 1.0.0
+ * @since 2024-01-01
+ */
+public interface UserSearchService {
+
+    /**
+     * Finds users whose name contains the given text, ignoring case.
+     *
+     * @param name the text to search for
+     * @return matching users in ascending ID order
+     * @throws InvalidInputException if name is blank or longer than 100 characters
+     */
+    List<UserResponseDTO> findUsersByName(String name);
+
+    /**
+     * Retrieves a user by ID.
+     *
+     * @param id the user ID
+     * @return the user
+     * @throws InvalidInputException if id is not a positive number
+     * @throws UserNotFoundException if user does not exist
+     */
+    UserResponseDTO getUserById(Long id);
+
+    /**
+     * Retrieves all users.
+     *
+     * @return all users in ascending ID order
+     */
+    List<UserResponseDTO> getAllUsers();
+}
@@ -1,67 +1,210 @@
 package com.example.userservice.service;
 
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.cache.UserEmailCache;
+import com.example.userservice.dto.UserLookupResponseDTO;
+import com.example.userservice.dto.UserVersionDTO;
 import com.example.userservice.exception.InvalidEmailException;
 import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.hotkey.HotKeyTracker;
 import com.example.userservice.model.User;
-import com.example.userservice.repository.UserRepository;
+import com.example.userservice.repository.UserStore;
+import com.example.userservice.validation.EmailValidator;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class UserService {
     
-    private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+    /**
+     * Latency timer of the service methods, tagged with class and method.
+     */
+    public static final String SERVICE_TIMER = "user.service";
+    
+    /**
+     * Maximum number of emails bound into a single IN (...) query.
+     */
+    private static final int LOOKUP_CHUNK_SIZE = 500;
     
-    private final UserRepository userRepository;
+    private final UserStore userRepository;
+    private final UserEmailCache userEmailCache;
+    private final EmailBloomFilter emailBloomFilter;
+    private final SingleFlight<String, Optional<User>> emailLookupFlight;
+    private final HotKeyTracker<String> emailHotKeys;
     
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserStore userRepository, UserEmailCache userEmailCache,
+                       EmailBloomFilter emailBloomFilter,
+                       SingleFlight<String, Optional<User>> emailLookupFlight,
+                       HotKeyTracker<String> emailHotKeys) {
         this.userRepository = userRepository;
+        this.userEmailCache = userEmailCache;
+        this.emailBloomFilter = emailBloomFilter;
+        this.emailLookupFlight = emailLookupFlight;
+        this.emailHotKeys = emailHotKeys;
     }
     
     /**
-     * Retrieves user details by email ID with case-insensitive lookup
+     * Retrieves user details by email ID with case-insensitive lookup.
+     * Repeat lookups are served from the in-process email cache, emails the
+     * bloom filter reports as absent are rejected without a query, and
+     * concurrent misses for the same email share a single query. Every valid
+     * email is counted towards the hot key report, found or not.
      * 
      * @param email the email ID to search for
      * @return User object containing user details
      * @throws InvalidEmailException if email format is invalid
      * @throws UserNotFoundException if user does not exist
      */
+    @Timed(SERVICE_TIMER)
     public User getUserByEmail(String email) {
-        log.info("Attempting to retrieve user with email: {}", email);
+        log.debug("Attempting to retrieve user with email: {}", email);
         
         // Validate email format
         if (!isValidEmail(email)) {
-            log.error("Invalid email format: {}", email);
+            log.debug("Invalid email format: {}", email);
             throw new InvalidEmailException("Invalid email format: " + email);
         }
+        emailHotKeys.record(User.normalizeEmail(email));
         
-        // Perform case-insensitive lookup
-        User user = userRepository.findByEmailIgnoreCase(email)
+        Optional<User> cached = userEmailCache.get(email);
+        if (cached.isPresent()) {
+            log.debug("Cache hit for email: {}", email);
+            return cached.get();
+        }
+        
+        if (!emailBloomFilter.mightContain(email)) {
+            log.debug("User not found with email: {}", email);
+            throw new UserNotFoundException("User not found with email: " + email);
+        }
+        
+        // Perform case-insensitive lookup, coalescing concurrent callers
+        User user = emailLookupFlight.execute(User.normalizeEmail(email),
+                        () -> userRepository.findByEmailIgnoreCase(email))
                 .orElseThrow(() -> {
-                    log.error("User not found with email: {}", email);
+                    emailBloomFilter.recordFalsePositive();
+                    log.debug("User not found with email: {}", email);
                     return new UserNotFoundException("User not found with email: " + email);
                 });
         
-        log.info("Successfully retrieved user with email: {}", email);
+        userEmailCache.put(user);
+        log.debug("Successfully retrieved user with email: {}", email);
         return user;
     }
     
     /**
-     * Validates email format using regex pattern
+     * Retrieves only the version of a user, so conditional requests can be
+     * answered without loading the full user. Served from the email cache
+     * when the user is cached, otherwise from a version-only query.
+     * 
+     * @param email the email ID to search for
+     * @return the user's version, or empty if the user does not exist
+     * @throws InvalidEmailException if email format is invalid
+     */
+    @Timed(SERVICE_TIMER)
+    public Optional<UserVersionDTO> getUserVersion(String email) {
+        if (!isValidEmail(email)) {
+            log.debug("Invalid email format: {}", email);
+            throw new InvalidEmailException("Invalid email format: " + email);
+        }
+        
+        Optional<User> cached = userEmailCache.get(email);
+        if (cached.isPresent()) {
+            return cached.map(UserVersionDTO::of);
+        }
+        
+        if (!emailBloomFilter.mightContain(email)) {
+            return Optional.empty();
+        }
+        return userRepository.findVersionByEmailNormalized(User.normalizeEmail(email));
+    }
+    
+    /**
+     * Resolves many emails at once. Cached users and bloom filter misses are
+     * answered from memory; the rest are fetched with one IN (...) query per
+     * {@value #LOOKUP_CHUNK_SIZE} emails.
+     * 
+     * @param emails the emails to resolve (any case, duplicates allowed)
+     * @return the users found and the emails that were invalid or not found
+     */
+    @Timed(SERVICE_TIMER)
+    public UserLookupResponseDTO getUsersByEmails(List<String> emails) {
+        log.debug("Attempting to retrieve {} users by email", emails.size());
+        
+        // Normalized email -> first requested form, in request order
+        Map<String, String> requested = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String email : emails) {
+            if (isValidEmail(email)) {
+                requested.putIfAbsent(User.normalizeEmail(email), email);
+            } else {
+                misses.add(email);
+            }
+        }
+        
+        Map<String, User> found = new HashMap<>();
+        Set<String> rejected = new HashSet<>();
+        List<String> pending = new ArrayList<>();
+        for (String normalized : requested.keySet()) {
+            Optional<User> cached = userEmailCache.get(normalized);
+            if (cached.isPresent()) {
+                found.put(normalized, cached.get());
+            } else if (emailBloomFilter.mightContain(normalized)) {
+                pending.add(normalized);
+            } else {
+                rejected.add(normalized);
+            }
+        }
+        
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = pending.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, pending.size()));
+            for (User user : userRepository.findByEmailNormalizedIn(chunk)) {
+                found.put(User.normalizeEmail(user.getEmail()), user);
+                userEmailCache.put(user);
+            }
+        }
+        
+        List<User> users = new ArrayList<>(found.size());
+        requested.forEach((normalized, email) -> {
+            User user = found.get(normalized);
+            if (user != null) {
+                users.add(user);
+            } else {
+                if (!rejected.contains(normalized)) {
+                    emailBloomFilter.recordFalsePositive();
+                }
+                misses.add(email);
+            }
+        });
+        
+        log.debug("Resolved {} of {} requested emails", users.size(), emails.size());
+        return UserLookupResponseDTO.builder()
+                .users(users)
+                .misses(misses)
+                .build();
+    }
+    
+    /**
+     * Validates email format
      * 
      * @param email the email to validate
      * @return true if email is valid, false otherwise
+     * @see EmailValidator
      */
-    private boolean isValidEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
-            return false;
-        }
-        return EMAIL_PATTERN.matcher(email).matches();
+    static boolean isValidEmail(String email) {
+        return EmailValidator.isValid(email);
     }
 }
\ No newline at end of file
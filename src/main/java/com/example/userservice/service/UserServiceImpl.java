@@ -1,21 +1,39 @@
 package com.example.userservice.service;
 
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.dto.CursorPageDTO;
 import com.example.userservice.dto.UserResponseDTO;
 import com.example.userservice.exception.InvalidInputException;
 import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.hotkey.HotKeyTracker;
+import com.example.userservice.index.NameTrigramIndex;
 import com.example.userservice.model.User;
-import com.example.userservice.repository.UserRepository;
+import com.example.userservice.repository.UserStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
- * Implementation of UserService interface.
+ * Implementation of UserSearchService interface.
  * Provides business logic for user operations including name-based search.
  * 
  * @author Automation Engineer
@@ -25,26 +43,69 @@ import java.util.stream.Collectors;
 @Service
 @Transactional(readOnly = true)
 @Slf4j
-public class UserServiceImpl implements UserService {
+public class UserServiceImpl implements UserSearchService {
 
-    private final UserRepository userRepository;
+    /**
+     * Hard upper bound on the page size of {@link #getAllUsers(String, int)}.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of IDs bound into a single IN (...) query.
+     */
+    static final int ID_CHUNK_SIZE = 500;
+
+    /**
+     * Above this many trigram index candidates one LIKE scan is cheaper than
+     * fetching the candidates by ID.
+     */
+    static final int MAX_INDEX_CANDIDATES = 5000;
+    
+    /**
+     * Distribution of the number of users returned, tagged with method.
+     */
+    public static final String RESULT_SIZE_SUMMARY = "user.results.size";
+
+    private final UserStore userRepository;
+    private final NameTrigramIndex nameTrigramIndex;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<Long, Optional<UserResponseDTO>> idLookupFlight;
+    private final HotKeyTracker<Long> idHotKeys;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Constructor for dependency injection.
      * 
      * @param userRepository the user repository
+     * @param nameTrigramIndex the in-memory name search index
+     * @param objectMapper the JSON mapper used for exports
+     * @param idLookupFlight request coalescing for lookups by ID
+     * @param idHotKeys heavy hitter tracking for lookups by ID
+     * @param meterRegistry the registry receiving the result size metrics
      */
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserStore userRepository, NameTrigramIndex nameTrigramIndex,
+                           ObjectMapper objectMapper,
+                           SingleFlight<Long, Optional<UserResponseDTO>> idLookupFlight,
+                           HotKeyTracker<Long> idHotKeys,
+                           MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.nameTrigramIndex = nameTrigramIndex;
+        this.objectMapper = objectMapper;
+        this.idLookupFlight = idLookupFlight;
+        this.idHotKeys = idHotKeys;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @Timed(UserService.SERVICE_TIMER)
     public List<UserResponseDTO> findUsersByName(String name) {
-        log.info("Searching for users with name containing: {}", name);
+        log.debug("Searching for users with name containing: {}", name);
         
         // Validate input
         validateNameInput(name);
@@ -52,77 +113,156 @@ public class UserServiceImpl implements UserService {
         // Trim and sanitize input
         String sanitizedName = name.trim();
         
-        // Search for users
-        List<User> users = userRepository.findByNameContainingIgnoreCase(sanitizedName);
+        // Search the trigram index, falling back to LIKE when it cannot answer
+        List<UserResponseDTO> users = indexCandidates(sanitizedName)
+                .map(ids -> inChunks(ids, userRepository::findResponsesByIdIn))
+                .orElseGet(() -> userRepository.findResponsesByNameContaining(sanitizedName));
         
-        log.info("Found {} users matching name: {}", users.size(), sanitizedName);
-        
-        // Convert to DTOs
-        return users.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public List<UserResponseDTO> findActiveUsersByName(String name) {
-        log.info("Searching for active users with name containing: {}", name);
-        
-        // Validate input
-        validateNameInput(name);
-        
-        // Trim and sanitize input
-        String sanitizedName = name.trim();
-        
-        // Search for active users
-        List<User> users = userRepository.findActiveUsersByName(sanitizedName);
-        
-        log.info("Found {} active users matching name: {}", users.size(), sanitizedName);
-        
-        // Convert to DTOs
-        return users.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        log.debug("Found {} users matching name: {}", users.size(), sanitizedName);
+        resultSize("findUsersByName").record(users.size());
+        return users;
     }
 
     /**
      * {@inheritDoc}
+     * 
+     * <p>Runs without its own transaction so that callers coalesced onto an
+     * in-flight lookup do not each open one; the repository call is transactional.
      */
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @Timed(UserService.SERVICE_TIMER)
     public UserResponseDTO getUserById(Long id) {
-        log.info("Fetching user with ID: {}", id);
+        log.debug("Fetching user with ID: {}", id);
         
         if (id == null || id <= 0) {
             log.error("Invalid user ID: {}", id);
             throw new InvalidInputException("User ID must be a positive number");
         }
+        idHotKeys.record(id);
         
-        User user = userRepository.findById(id)
+        UserResponseDTO user = idLookupFlight.execute(id,
+                        () -> userRepository.findById(id).map(this::convertToDTO))
                 .orElseThrow(() -> {
-                    log.error("User not found with ID: {}", id);
+                    log.debug("User not found with ID: {}", id);
                     return new UserNotFoundException("User not found with ID: " + id);
                 });
         
-        log.info("Successfully fetched user with ID: {}", id);
-        return convertToDTO(user);
+        log.debug("Successfully fetched user with ID: {}", id);
+        return user;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @Timed(UserService.SERVICE_TIMER)
     public List<UserResponseDTO> getAllUsers() {
-        log.info("Fetching all users");
+        log.debug("Fetching all users");
         
-        List<User> users = userRepository.findAll();
+        List<UserResponseDTO> users = userRepository.findAllResponses();
         
-        log.info("Found {} users in total", users.size());
+        log.debug("Found {} users in total", users.size());
+        resultSize("getAllUsers").record(users.size());
+        return users;
+    }
+
+    /**
+     * Fetches one page of users in ascending ID order using keyset pagination,
+     * so deep pages cost the same as the first one.
+     * 
+     * @param after cursor returned with the previous page, or null for the first page
+     * @param limit requested page size, clamped to 1..{@value #MAX_PAGE_SIZE}
+     * @return the page of users and the cursor of the next page
+     * @throws InvalidInputException if the cursor is malformed
+     */
+    @Timed(UserService.SERVICE_TIMER)
+    public CursorPageDTO<UserResponseDTO> getAllUsers(String after, int limit) {
+        long afterId = after == null ? 0L : CursorPageDTO.decodeCursor(after);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.debug("Fetching users after ID {} with page size {}", afterId, pageSize);
+        
+        // Fetch one extra row to learn whether another page follows
+        List<UserResponseDTO> users = userRepository.findResponsesAfterId(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = users.size() > pageSize;
+        List<UserResponseDTO> items = hasNext ? users.subList(0, pageSize) : users;
+        resultSize("getAllUsersPage").record(items.size());
         
-        return users.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return CursorPageDTO.<UserResponseDTO>builder()
+                .items(items)
+                .nextCursor(hasNext ? CursorPageDTO.encodeCursor(items.get(pageSize - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Writes every user to the stream as newline-delimited JSON, in ascending ID order.
+     * Rows are read through a forward-only cursor straight into DTOs, so heap
+     * use does not grow with the table size.
+     * 
+     * @param out the response output stream
+     * @return the number of users written
+     * @throws IOException if writing to the stream fails
+     */
+    public long exportUsers(OutputStream out) throws IOException {
+        log.info("Exporting all users as NDJSON");
+        
+        ObjectWriter writer = objectMapper.writerFor(UserResponseDTO.class);
+        OutputStream buffered = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+        long count = 0;
+        
+        try (Stream<UserResponseDTO> users = userRepository.streamAllResponses()) {
+            Iterator<UserResponseDTO> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                buffered.write(writer.writeValueAsBytes(iterator.next()));
+                buffered.write('\n');
+                
+                // Push the first row out immediately; later rows go out as the buffer fills
+                if (++count == 1) {
+                    buffered.flush();
+                }
+            }
+        }
+        buffered.flush();
+        
+        log.info("Exported {} users", count);
+        return count;
+    }
+
+    // Looked up on each use, like the @Timed timers, so the startup warm-up can remove its samples
+    private DistributionSummary resultSize(String method) {
+        return DistributionSummary.builder(RESULT_SIZE_SUMMARY)
+                .tag("method", method)
+                .baseUnit("users")
+                .description("Number of users returned")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the trigram index matches for a name, or empty when the index
+     * cannot answer or matches too many users to fetch by ID.
+     * 
+     * @param name the trimmed name query
+     * @return matching IDs in ascending order, or empty to fall back to LIKE
+     */
+    private Optional<List<Long>> indexCandidates(String name) {
+        return nameTrigramIndex.search(name)
+                .filter(ids -> ids.size() <= MAX_INDEX_CANDIDATES);
+    }
+
+    /**
+     * Runs an ID query once per {@value #ID_CHUNK_SIZE} IDs and concatenates
+     * the results, so no single IN (...) list grows with the match count.
+     * 
+     * @param ids the IDs to fetch, in ascending order
+     * @param query the query for one chunk of IDs
+     * @return the results of all chunks, in chunk order
+     */
+    private static <T> List<T> inChunks(List<Long> ids, Function<List<Long>, List<T>> query) {
+        List<T> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            results.addAll(query.apply(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()))));
+        }
+        return results;
     }
 
     /**
@@ -154,14 +294,12 @@ public class UserServiceImpl implements UserService {
      * @param user the user entity
      * @return the user response DTO
      */
-    private UserResponseDTO convertToDTO(User user) {
+    UserResponseDTO convertToDTO(User user) {
         return UserResponseDTO.builder()
                 .id(user.getId())
                 .name(user.getName())
                 .email(user.getEmail())
                 .phone(user.getPhone())
-                .department(user.getDepartment())
-                .status(user.getStatus())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
                 .build();
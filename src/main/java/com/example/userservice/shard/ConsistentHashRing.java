@@ -0,0 +1,83 @@
+package com.example.userservice.shard;
+
+import com.example.userservice.util.Hashing;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring. Each node is placed at {@code virtualNodes} points on
+ * a 64-bit ring and owns the keys hashing between its points and the
+ * previous ones, so adding a node to a ring of N takes over about 1/(N+1)
+ * of the keys and leaves every other key where it was.
+ *
+ * <p>Not thread-safe; callers guard concurrent mutation.
+ *
+ * @param <T> the node type
+ */
+public class ConsistentHashRing<T> {
+
+    private final int virtualNodes;
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+    private final Map<String, T> nodes = new LinkedHashMap<>();
+
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Adds a node to the ring.
+     *
+     * @param name a name stable across restarts, which determines the node's points
+     * @param node the node
+     * @throws IllegalArgumentException if a node with this name already exists
+     */
+    public void add(String name, T node) {
+        if (nodes.putIfAbsent(name, node) != null) {
+            throw new IllegalArgumentException("Duplicate node: " + name);
+        }
+        for (int i = 0; i < virtualNodes; i++) {
+            ring.put(Hashing.hash(name + "#" + i), node);
+        }
+    }
+
+    /**
+     * @return an independent ring with the same nodes and points
+     */
+    public ConsistentHashRing<T> copy() {
+        ConsistentHashRing<T> copy = new ConsistentHashRing<>(virtualNodes);
+        copy.ring.putAll(ring);
+        copy.nodes.putAll(nodes);
+        return copy;
+    }
+
+    /**
+     * @param key the key to place
+     * @return the node owning the key
+     * @throws IllegalStateException if the ring is empty
+     */
+    public T nodeFor(String key) {
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("No nodes on the ring");
+        }
+        Map.Entry<Long, T> owner = ring.ceilingEntry(Hashing.hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return the nodes, in the order they were added
+     */
+    public Collection<T> nodes() {
+        return nodes.values();
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+}
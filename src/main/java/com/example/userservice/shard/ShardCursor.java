@@ -0,0 +1,218 @@
+package com.example.userservice.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only cursor over one shard's query result, holding a connection
+ * until closed. Rows are fetched {@value #FETCH_SIZE} at a time inside a
+ * read-only transaction, since PostgreSQL ignores the fetch size in
+ * auto-commit mode and would load the whole result.
+ *
+ * @param <T> the row type
+ */
+final class ShardCursor<T> implements Iterator<T>, AutoCloseable {
+
+    static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+    private final RowMapper<T> rowMapper;
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private int rowNum;
+    private T next;
+    private boolean fetched;
+    private boolean closed;
+
+    private ShardCursor(JdbcTemplate jdbcTemplate, String sql, RowMapper<T> rowMapper, Connection connection,
+                        PreparedStatement statement, ResultSet resultSet) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = sql;
+        this.rowMapper = rowMapper;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+    }
+
+    /**
+     * Runs the query and positions the cursor before the first row.
+     *
+     * @param jdbcTemplate the shard's template, for its datasource and exception translation
+     * @param sql the query
+     * @param rowMapper maps each row
+     * @return an open cursor, to be closed by the caller
+     */
+    static <T> ShardCursor<T> open(JdbcTemplate jdbcTemplate, String sql, RowMapper<T> rowMapper) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = jdbcTemplate.getDataSource().getConnection();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return new ShardCursor<>(jdbcTemplate, sql, rowMapper, connection, statement, statement.executeQuery());
+        } catch (SQLException e) {
+            release(connection, statement, null);
+            throw jdbcTemplate.getExceptionTranslator().translate("Open shard cursor", sql, e);
+        }
+    }
+
+    /**
+     * Streams several cursors one after another, opening each only when the
+     * previous one is exhausted, so at most one connection is held at a time.
+     *
+     * @param cursors opens each cursor, in order
+     * @return the concatenated rows; closing the stream closes the open cursor
+     */
+    static <T> Stream<T> concat(List<Supplier<ShardCursor<T>>> cursors) {
+        Iterator<Supplier<ShardCursor<T>>> pending = cursors.iterator();
+        List<ShardCursor<T>> open = new ArrayList<>(1);
+        Iterator<T> rows = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                while (true) {
+                    if (!open.isEmpty()) {
+                        if (open.get(0).hasNext()) {
+                            return true;
+                        }
+                        open.remove(0).close();
+                    }
+                    if (!pending.hasNext()) {
+                        return false;
+                    }
+                    open.add(pending.next().get());
+                }
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return open.get(0).next();
+            }
+        };
+        return stream(rows, Spliterator.ORDERED).onClose(() -> open.forEach(ShardCursor::close));
+    }
+
+    /**
+     * Merges cursors whose rows are each sorted, keeping one row per cursor
+     * in memory. Rows comparing equal to the one just returned are skipped,
+     * which drops a copy of a user seen on two shards while it moves.
+     *
+     * @param cursors the open cursors
+     * @param order the order each cursor is sorted in
+     * @return the merged rows; closing the stream closes every cursor
+     */
+    static <T> Stream<T> merge(List<ShardCursor<T>> cursors, Comparator<T> order) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Comparator.comparing((Head<T> head) -> head.row, order));
+        Iterator<T> rows = new Iterator<>() {
+            private boolean started;
+            private T last;
+
+            @Override
+            public boolean hasNext() {
+                if (!started) {
+                    started = true;
+                    cursors.forEach(cursor -> advance(heads, cursor));
+                }
+                while (!heads.isEmpty() && last != null && order.compare(heads.peek().row, last) == 0) {
+                    Head<T> duplicate = heads.poll();
+                    advance(heads, duplicate.cursor);
+                }
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Head<T> head = heads.poll();
+                last = head.row;
+                advance(heads, head.cursor);
+                return last;
+            }
+        };
+        return stream(rows, Spliterator.ORDERED)
+                .onClose(() -> cursors.forEach(ShardCursor::close));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!fetched && !closed) {
+            try {
+                if (resultSet.next()) {
+                    next = rowMapper.mapRow(resultSet, rowNum++);
+                    fetched = true;
+                }
+            } catch (SQLException e) {
+                close();
+                throw jdbcTemplate.getExceptionTranslator().translate("Read shard cursor", sql, e);
+            }
+        }
+        return fetched;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        return next;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            release(connection, statement, resultSet);
+        }
+    }
+
+    private static <T> void advance(PriorityQueue<Head<T>> heads, ShardCursor<T> cursor) {
+        if (cursor.hasNext()) {
+            heads.add(new Head<>(cursor.next(), cursor));
+        }
+    }
+
+    private static <T> Stream<T> stream(Iterator<T> rows, int characteristics) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, characteristics), false);
+    }
+
+    private static void release(Connection connection, PreparedStatement statement, ResultSet resultSet) {
+        try (connection; statement; resultSet) {
+            if (connection != null) {
+                // Nothing was written; end the transaction before the connection goes back to the pool
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            // The rows have been read; a failure to release is not the caller's concern
+        }
+    }
+
+    private record Head<T>(T row, ShardCursor<T> cursor) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.userservice.shard;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.dto.UserVersionDTO;
+import com.example.userservice.model.User;
+import com.example.userservice.model.UserEntityListener;
+import com.example.userservice.repository.UserKeyView;
+import com.example.userservice.repository.UserStore;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * {@link UserStore} backed by a {@link ShardedUserStore}, injected in place
+ * of the JPA repository when sharding is enabled so the services keep using
+ * the same interface.
+ *
+ * <p>Writes bypass JPA, so the entity listener is called directly to keep
+ * the caches and lookup indexes in step.
+ */
+public class ShardedUserRepository implements UserStore {
+
+    private final ShardedUserStore store;
+    private final UserEntityListener listener;
+
+    /**
+     * @param store the sharded store
+     * @param listener notified of every save and delete
+     */
+    public ShardedUserRepository(ShardedUserStore store, UserEntityListener listener) {
+        this.store = store;
+        this.listener = listener;
+    }
+
+    @Override
+    public Optional<User> findByEmailNormalized(String emailNormalized) {
+        return store.findByEmail(emailNormalized);
+    }
+
+    @Override
+    public Optional<UserVersionDTO> findVersionByEmailNormalized(String emailNormalized) {
+        return store.findByEmail(emailNormalized).map(UserVersionDTO::of);
+    }
+
+    @Override
+    public List<User> findByEmailNormalizedIn(Collection<String> emailsNormalized) {
+        return store.findByEmails(emailsNormalized);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public List<UserResponseDTO> findResponsesByNameContaining(String name) {
+        return toResponses(store.findByNameContaining(name));
+    }
+
+    @Override
+    public List<UserResponseDTO> findResponsesByIdIn(Collection<Long> ids) {
+        return toResponses(store.findByIds(ids));
+    }
+
+    @Override
+    public List<UserResponseDTO> findAllResponses() {
+        return toResponses(store.findAll());
+    }
+
+    @Override
+    public List<UserResponseDTO> findResponsesAfterId(Long afterId, Pageable pageable) {
+        return toResponses(store.findAfterId(afterId, offset(pageable), pageSize(pageable)));
+    }
+
+    @Override
+    public Stream<UserResponseDTO> streamAllResponses() {
+        return store.streamAll().map(ShardedUserRepository::toResponse);
+    }
+
+    @Override
+    public Stream<UserKeyView> streamAllKeys() {
+        return store.streamKeys();
+    }
+
+    @Override
+    public List<UserKeyView> findKeysUpdatedSince(LocalDateTime since) {
+        return store.findUpdatedSince(since).stream()
+                .map(ShardedUserRepository::toKeyView)
+                .toList();
+    }
+
+    @Override
+    public List<User> findRecentlyUpdated(Pageable pageable) {
+        return store.findRecentlyUpdated(offset(pageable), pageSize(pageable));
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    /**
+     * Saves the user on its shard and notifies the entity listener.
+     *
+     * @param user the user to save
+     * @return the saved user, with its ID and version set
+     */
+    public User save(User user) {
+        User saved = store.save(user);
+        listener.onSave(saved);
+        return saved;
+    }
+
+    /**
+     * Deletes the user and notifies the entity listener if it existed.
+     *
+     * @param user the user to delete
+     */
+    public void delete(User user) {
+        if (store.deleteById(user.getId())) {
+            listener.onRemove(user);
+        }
+    }
+
+    /**
+     * Deletes the user with the given ID and notifies the entity listener if it existed.
+     *
+     * @param id the user ID
+     */
+    public void deleteById(Long id) {
+        store.findById(id).ifPresent(this::delete);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedUserRepository[" + store.shardCount() + " shards]";
+    }
+
+    private static long offset(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getOffset() : 0;
+    }
+
+    private static int pageSize(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+    }
+
+    private static List<UserResponseDTO> toResponses(List<User> users) {
+        return users.stream().map(ShardedUserRepository::toResponse).toList();
+    }
+
+    private static UserResponseDTO toResponse(User user) {
+        return new UserResponseDTO(user.getId(), user.getName(), user.getEmail(), user.getPhone(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    private static UserKeyView toKeyView(User user) {
+        return new UserKeyView() {
+            @Override
+            public Long getId() {
+                return user.getId();
+            }
+
+            @Override
+            public String getEmailNormalized() {
+                return user.getEmailNormalized();
+            }
+
+            @Override
+            public String getName() {
+                return user.getName();
+            }
+        };
+    }
+}
@@ -0,0 +1,871 @@
+package com.example.userservice.shard;
+
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserKeyView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * User table partitioned across several databases by consistent hash of the
+ * normalized email. Lookups by email touch exactly one shard. Lookups by ID
+ * read the ID's row in the {@code user_ids} index, partitioned by hash of the
+ * ID on the same ring, and then the owning shard. Listing and name search
+ * query every shard in parallel and merge the results.
+ *
+ * <p>IDs come from a database sequence, so they stay unique across shards
+ * and across every instance sharing the shards. Every shard must already
+ * have the {@code users} table with a unique index on
+ * {@code email_normalized}, and the {@code user_ids} table.
+ *
+ * <p>While a shard is being added, keys may sit on their previous or their
+ * new owner. Lookups read the previous owner first, then the new one;
+ * writes go to the new owner and remove the previous copy.
+ */
+@Slf4j
+public class ShardedUserStore {
+
+    private static final String COLUMNS = "id, email, email_normalized, name, phone, address, city, state,"
+            + " zip_code, country, version, created_at, updated_at";
+    private static final String SELECT_USERS = "SELECT " + COLUMNS + " FROM users";
+    private static final String INSERT_USER =
+            "INSERT INTO users (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SET = "UPDATE users SET email = ?, email_normalized = ?, name = ?,"
+            + " phone = ?, address = ?, city = ?, state = ?, zip_code = ?, country = ?, version = version + 1,"
+            + " updated_at = ?";
+    private static final String UPDATE_BY_ID = UPDATE_SET + " WHERE id = ?";
+    private static final String UPDATE_BY_EMAIL = UPDATE_SET + " WHERE email_normalized = ?";
+    private static final String SELECT_INDEX = "SELECT id, email_normalized FROM user_ids";
+    private static final String INSERT_INDEX = "INSERT INTO user_ids (id, email_normalized) VALUES (?, ?)";
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+    private static final int IN_CHUNK_SIZE = 500;
+
+    /**
+     * Rows moved per step of {@link #addShard}; writers wait for at most one step.
+     */
+    static final int MOVE_BATCH_SIZE = 500;
+
+    private static final Comparator<User> BY_ID = Comparator.comparing(User::getId);
+    private static final Comparator<User> RECENTLY_UPDATED_FIRST = Comparator
+            .comparing(User::getUpdatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(User::getId)
+            .reversed();
+
+    private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> User.builder()
+            .id(rs.getLong("id"))
+            .email(rs.getString("email"))
+            .emailNormalized(rs.getString("email_normalized"))
+            .name(rs.getString("name"))
+            .phone(rs.getString("phone"))
+            .address(rs.getString("address"))
+            .city(rs.getString("city"))
+            .state(rs.getString("state"))
+            .zipCode(rs.getString("zip_code"))
+            .country(rs.getString("country"))
+            .version(rs.getLong("version"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .build();
+
+    private static final RowMapper<UserKeyView> KEY_ROW_MAPPER = (rs, rowNum) ->
+            new Key(rs.getLong("id"), rs.getString("email_normalized"), rs.getString("name"));
+
+    private static final RowMapper<IndexEntry> INDEX_ROW_MAPPER = (rs, rowNum) ->
+            new IndexEntry(rs.getLong("id"), rs.getString("email_normalized"));
+
+    private final DataFieldMaxValueIncrementer idIncrementer;
+    private final Executor executor;
+    // Writers and scatter-gather reads share the lock; each step of a shard move takes it exclusively.
+    // Single-key reads never take it.
+    private final ReadWriteLock moveLock = new ReentrantReadWriteLock();
+    private volatile Topology topology;
+
+    /**
+     * @param shards the shard datasources by name; names place the shards on the ring,
+     *               so they must stay the same across restarts
+     * @param virtualNodes points per shard on the ring
+     * @param idIncrementer allocates new user IDs, normally from a database sequence
+     * @param executor runs the per-shard queries of scatter-gather operations
+     */
+    public ShardedUserStore(Map<String, DataSource> shards, int virtualNodes,
+                            DataFieldMaxValueIncrementer idIncrementer, Executor executor) {
+        ConsistentHashRing<Shard> ring = new ConsistentHashRing<>(virtualNodes);
+        shards.forEach((name, dataSource) -> ring.add(name, new Shard(name, new JdbcTemplate(dataSource))));
+        this.topology = new Topology(ring, null);
+        this.idIncrementer = idIncrementer;
+        this.executor = executor;
+        log.info("Sharded user store initialised with {} shards", ring.size());
+    }
+
+    /**
+     * Finds a user by email, ignoring case. Queries only the owning shard.
+     *
+     * @param email the email to look up
+     * @return the user, or empty if none exists
+     */
+    public Optional<User> findByEmail(String email) {
+        return locate(topology, User.normalizeEmail(email)).map(Located::user);
+    }
+
+    /**
+     * Finds users by email, ignoring case, with one query per owning shard.
+     *
+     * @param emails the emails to look up
+     * @return the users found, in ascending ID order
+     */
+    public List<User> findByEmails(Collection<String> emails) {
+        moveLock.readLock().lock();
+        try {
+            Topology current = topology;
+            Map<Shard, List<String>> byShard = new LinkedHashMap<>();
+            for (String email : emails) {
+                String normalized = User.normalizeEmail(email);
+                byShard.computeIfAbsent(current.ring().nodeFor(normalized), shard -> new ArrayList<>())
+                        .add(normalized);
+                Shard previous = current.previousOwner(normalized);
+                if (previous != null) {
+                    byShard.computeIfAbsent(previous, shard -> new ArrayList<>()).add(normalized);
+                }
+            }
+            List<List<User>> found = new ArrayList<>(byShard.size());
+            byShard.forEach((shard, normalized) ->
+                    found.add(queryIn(shard, "email_normalized", normalized)));
+            return merge(found, BY_ID);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds a user by ID through the ID index: one query on the shard owning
+     * the ID, one on the shard owning the user's email.
+     *
+     * @param id the user ID
+     * @return the user, or empty if none exists
+     */
+    public Optional<User> findById(long id) {
+        return locateById(topology, id).map(Located::user);
+    }
+
+    /**
+     * Finds users by ID on all shards in parallel.
+     *
+     * @param ids the user IDs
+     * @return the users found, in ascending ID order
+     */
+    public List<User> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> distinct = ids.stream().distinct().toList();
+        moveLock.readLock().lock();
+        try {
+            return merge(scatter(topology, shard -> queryIn(shard, "id", distinct)), BY_ID);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the user on the shard that owns its email and returns it with its
+     * ID and version set.
+     *
+     * <p>A user with an ID is updated in place. If a changed email moves the
+     * user to another shard, the row is copied to the new owner before it is
+     * deleted from the old one. A user without an ID is inserted with a new
+     * ID, or, if its email is already taken, updates the existing user; the
+     * unique index on {@code email_normalized} makes that choice atomic.
+     *
+     * @param user the user to save
+     * @return the saved user
+     */
+    public User save(User user) {
+        String normalized = User.normalizeEmail(user.getEmail());
+        user.setEmailNormalized(normalized);
+        LocalDateTime now = LocalDateTime.now();
+        moveLock.readLock().lock();
+        try {
+            Topology current = topology;
+            Shard owner = current.ring().nodeFor(normalized);
+            if (user.getId() == null && current.previousOwner(normalized) != null) {
+                // Not moved yet: update the existing user, which also moves it to its new owner
+                locate(current, normalized).ifPresent(existing -> user.setId(existing.user().getId()));
+            }
+            if (user.getId() != null) {
+                return saveWithId(current, user, owner, now);
+            }
+            for (int attempt = 1; ; attempt++) {
+                long id = idIncrementer.nextLongValue();
+                try {
+                    // Index first, so the user is reachable by ID as soon as it exists
+                    putIndex(current, id, normalized);
+                    user.setId(id);
+                    user.setVersion(0L);
+                    user.setCreatedAt(now);
+                    user.setUpdatedAt(now);
+                    owner.jdbcTemplate().update(INSERT_USER, insertValues(user));
+                    return user;
+                } catch (DuplicateKeyException e) {
+                    user.setId(null);
+                    removeIndex(current, id);
+                    // Re-read the row so the returned user carries its real ID and version
+                    if (update(owner, user, UPDATE_BY_EMAIL, normalized, now)) {
+                        Optional<User> saved = selectByEmail(owner, normalized);
+                        if (saved.isPresent()) {
+                            return saved.get();
+                        }
+                    }
+                    // The existing user was deleted between the insert and the update
+                    if (attempt == MAX_SAVE_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the user with the given email from its shard.
+     *
+     * @param email the email of the user to delete
+     * @return true if a user was deleted
+     */
+    public boolean deleteByEmail(String email) {
+        moveLock.readLock().lock();
+        try {
+            Topology current = topology;
+            return locate(current, User.normalizeEmail(email))
+                    .map(located -> delete(current, located))
+                    .orElse(false);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the user with the given ID, found through the ID index.
+     *
+     * @param id the user ID
+     * @return true if a user was deleted
+     */
+    public boolean deleteById(long id) {
+        moveLock.readLock().lock();
+        try {
+            Topology current = topology;
+            Optional<Located> located = locateById(current, id);
+            if (located.isEmpty()) {
+                // Drop an index entry left behind by an interrupted write
+                removeIndex(current, id);
+                return false;
+            }
+            return delete(current, located.get());
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists every user from all shards in parallel.
+     *
+     * @return all users in ascending ID order
+     */
+    public List<User> findAll() {
+        moveLock.readLock().lock();
+        try {
+            return merge(scatter(topology, shard -> shard.jdbcTemplate()
+                    .query(SELECT_USERS + " ORDER BY id", USER_ROW_MAPPER)), BY_ID);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams every user in ascending ID order through one forward-only
+     * cursor per shard, merged as they are read, so heap use does not grow
+     * with the table size. Holds one connection per shard until closed.
+     *
+     * <p>Does not hold off shard moves; a user moving while the stream is
+     * read may be missed.
+     *
+     * @return all users in ascending ID order; must be closed
+     */
+    public Stream<User> streamAll() {
+        List<ShardCursor<User>> cursors = new ArrayList<>();
+        try {
+            for (Shard shard : topology.nodes()) {
+                cursors.add(ShardCursor.open(shard.jdbcTemplate(), SELECT_USERS + " ORDER BY id", USER_ROW_MAPPER));
+            }
+        } catch (RuntimeException e) {
+            cursors.forEach(ShardCursor::close);
+            throw e;
+        }
+        return ShardCursor.merge(cursors, BY_ID);
+    }
+
+    /**
+     * Streams the ID, normalized email and name of every user, one shard
+     * after another, holding one connection at a time.
+     *
+     * @return the keys of all users, in no particular order; must be closed
+     */
+    public Stream<UserKeyView> streamKeys() {
+        List<Supplier<ShardCursor<UserKeyView>>> cursors = topology.nodes().stream()
+                .<Supplier<ShardCursor<UserKeyView>>>map(shard -> () -> ShardCursor.open(shard.jdbcTemplate(),
+                        "SELECT id, email_normalized, name FROM users", KEY_ROW_MAPPER))
+                .toList();
+        return ShardCursor.concat(cursors);
+    }
+
+    /**
+     * Counts the users with one {@code COUNT(*)} per shard.
+     *
+     * @return the number of users
+     */
+    public long count() {
+        moveLock.readLock().lock();
+        try {
+            return scatter(topology, shard -> shard.jdbcTemplate()
+                    .queryForObject("SELECT COUNT(*) FROM users", Long.class))
+                    .stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists the users with IDs above the given one, for keyset pagination.
+     * Each shard returns at most {@code offset + limit} rows, so the merged
+     * page is exact.
+     *
+     * @param afterId the last ID of the previous page
+     * @param offset the number of matching users to skip
+     * @param limit the page size
+     * @return up to {@code limit} users in ascending ID order
+     */
+    public List<User> findAfterId(long afterId, long offset, int limit) {
+        int rows = rowsToFetch(offset, limit);
+        moveLock.readLock().lock();
+        try {
+            return page(merge(scatter(topology, shard -> shard.jdbcTemplate().query(
+                    SELECT_USERS + " WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                    USER_ROW_MAPPER, afterId, rows)), BY_ID), offset, limit);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists the most recently created or updated users across all shards.
+     *
+     * @param offset the number of users to skip
+     * @param limit the number of users to return
+     * @return up to {@code limit} users, most recently updated first
+     */
+    public List<User> findRecentlyUpdated(long offset, int limit) {
+        int rows = rowsToFetch(offset, limit);
+        moveLock.readLock().lock();
+        try {
+            return page(merge(scatter(topology, shard -> shard.jdbcTemplate().query(
+                    SELECT_USERS + " ORDER BY updated_at DESC NULLS LAST, id DESC FETCH FIRST ? ROWS ONLY",
+                    USER_ROW_MAPPER, rows)), RECENTLY_UPDATED_FIRST), offset, limit);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists the users created or updated at or after the given time, on all
+     * shards in parallel.
+     *
+     * @param since the earliest update time to include
+     * @return the matching users in ascending ID order
+     */
+    public List<User> findUpdatedSince(LocalDateTime since) {
+        moveLock.readLock().lock();
+        try {
+            return merge(scatter(topology, shard -> shard.jdbcTemplate().query(
+                    SELECT_USERS + " WHERE updated_at >= ? ORDER BY id", USER_ROW_MAPPER, toTimestamp(since))),
+                    BY_ID);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds users whose name contains the given text, ignoring case, on all
+     * shards in parallel.
+     *
+     * @param name the text to search for
+     * @return the matching users in ascending ID order
+     */
+    public List<User> findByNameContaining(String name) {
+        String pattern = "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%";
+        moveLock.readLock().lock();
+        try {
+            return merge(scatter(topology, shard -> shard.jdbcTemplate().query(
+                    SELECT_USERS + " WHERE LOWER(name) LIKE ? ESCAPE '\\' ORDER BY id", USER_ROW_MAPPER, pattern)),
+                    BY_ID);
+        } finally {
+            moveLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a shard and moves to it the users and ID index entries it now
+     * owns, about 1/N of the total. Everything else stays where it is.
+     *
+     * <p>The shard goes on the ring first, with the old ring kept for reads,
+     * so lookups find a key on either owner while it moves. Rows are then
+     * moved {@value #MOVE_BATCH_SIZE} at a time: each batch is copied to the
+     * new shard and deleted from its old one while writers and
+     * scatter-gather reads wait, and lookups by email or ID never wait. If a
+     * batch fails, the rows already moved are sent back, the shard leaves the
+     * ring and the error is rethrown.
+     *
+     * @param name a new shard name
+     * @param dataSource the new shard's datasource, with empty users and user_ids tables
+     * @return the number of users moved
+     * @throws IllegalStateException if another shard is being added
+     */
+    public synchronized long addShard(String name, DataSource dataSource) {
+        Topology before = topology;
+        if (before.previous() != null) {
+            throw new IllegalStateException("A previous shard move did not finish; its keys are still on two rings");
+        }
+        Shard added = new Shard(name, new JdbcTemplate(dataSource));
+        // Fail before the ring changes if the new shard cannot hold users
+        added.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        added.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM user_ids", Long.class);
+        ConsistentHashRing<Shard> next = before.ring().copy();
+        next.add(name, added);
+
+        switchTo(new Topology(next, before.ring()));
+        long moved = 0;
+        try {
+            for (Shard shard : before.ring().nodes()) {
+                long count = move(shard, next);
+                log.info("Moved {} users from shard {} to shard {}", count, shard.name(), name);
+                moved += count;
+            }
+        } catch (RuntimeException e) {
+            log.error("Adding shard {} failed after moving {} users; moving them back", name, moved, e);
+            switchTo(new Topology(before.ring(), next));
+            try {
+                move(added, before.ring());
+                switchTo(before);
+            } catch (RuntimeException rollback) {
+                e.addSuppressed(rollback);
+                log.error("Could not move users back from shard {}; reads keep checking both rings", name, rollback);
+            }
+            throw e;
+        }
+        switchTo(new Topology(next, null));
+        return moved;
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int shardCount() {
+        return topology.ring().size();
+    }
+
+    private User saveWithId(Topology current, User user, Shard owner, LocalDateTime now) {
+        Optional<Located> existing = locateById(current, user.getId());
+        if (existing.isPresent() && existing.get().shard() == owner) {
+            User stored = existing.get().user();
+            if (!update(owner, user, UPDATE_BY_ID, user.getId(), now)) {
+                throw new IllegalStateException("User " + user.getId() + " was deleted while being saved");
+            }
+            if (!stored.getEmailNormalized().equals(user.getEmailNormalized())) {
+                putIndex(current, user.getId(), user.getEmailNormalized());
+            }
+            user.setVersion(stored.getVersion() + 1);
+            user.setCreatedAt(stored.getCreatedAt());
+            user.setUpdatedAt(now);
+            return user;
+        }
+
+        // New user with a caller-chosen ID, a user not yet moved to its new owner,
+        // or an email change that moves the user to another shard
+        user.setVersion(existing.map(located -> located.user().getVersion() + 1).orElse(0L));
+        user.setCreatedAt(existing.map(located -> located.user().getCreatedAt()).orElse(now));
+        user.setUpdatedAt(now);
+        putIndex(current, user.getId(), user.getEmailNormalized());
+        owner.jdbcTemplate().update(INSERT_USER, insertValues(user));
+        existing.ifPresent(located -> located.shard().jdbcTemplate()
+                .update("DELETE FROM users WHERE id = ?", user.getId()));
+        return user;
+    }
+
+    private boolean delete(Topology current, Located located) {
+        long id = located.user().getId();
+        boolean deleted = located.shard().jdbcTemplate().update("DELETE FROM users WHERE id = ?", id) > 0;
+        removeIndex(current, id);
+        return deleted;
+    }
+
+    /**
+     * Finds the user with the given normalized email. While a shard is being
+     * added the previous owner is read first: a moving row is copied to its
+     * new owner before it is deleted from the old one, so one of the two
+     * reads always sees it.
+     */
+    private static Optional<Located> locate(Topology current, String normalized) {
+        Shard previous = current.previousOwner(normalized);
+        if (previous != null) {
+            Optional<User> user = selectByEmail(previous, normalized);
+            if (user.isPresent()) {
+                return Optional.of(new Located(previous, user.get()));
+            }
+        }
+        Shard owner = current.ring().nodeFor(normalized);
+        return selectByEmail(owner, normalized).map(user -> new Located(owner, user));
+    }
+
+    private static Optional<Located> locateById(Topology current, long id) {
+        return indexLookup(current, id)
+                .flatMap(normalized -> locate(current, normalized))
+                // Skip an index entry left behind by an interrupted write
+                .filter(located -> located.user().getId() == id);
+    }
+
+    private static Optional<String> indexLookup(Topology current, long id) {
+        String key = idKey(id);
+        Shard previous = current.previousOwner(key);
+        if (previous != null) {
+            Optional<String> normalized = selectIndex(previous, id);
+            if (normalized.isPresent()) {
+                return normalized;
+            }
+        }
+        return selectIndex(current.ring().nodeFor(key), id);
+    }
+
+    private static void putIndex(Topology current, long id, String normalized) {
+        String key = idKey(id);
+        JdbcTemplate owner = current.ring().nodeFor(key).jdbcTemplate();
+        if (owner.update("UPDATE user_ids SET email_normalized = ? WHERE id = ?", normalized, id) == 0) {
+            owner.update(INSERT_INDEX, id, normalized);
+        }
+        Shard previous = current.previousOwner(key);
+        if (previous != null) {
+            previous.jdbcTemplate().update("DELETE FROM user_ids WHERE id = ?", id);
+        }
+    }
+
+    private static void removeIndex(Topology current, long id) {
+        String key = idKey(id);
+        current.ring().nodeFor(key).jdbcTemplate().update("DELETE FROM user_ids WHERE id = ?", id);
+        Shard previous = current.previousOwner(key);
+        if (previous != null) {
+            previous.jdbcTemplate().update("DELETE FROM user_ids WHERE id = ?", id);
+        }
+    }
+
+    private static Optional<User> selectByEmail(Shard shard, String normalized) {
+        return shard.jdbcTemplate()
+                .query(SELECT_USERS + " WHERE email_normalized = ?", USER_ROW_MAPPER, normalized)
+                .stream()
+                .findFirst();
+    }
+
+    private static Optional<String> selectIndex(Shard shard, long id) {
+        return shard.jdbcTemplate()
+                .queryForList("SELECT email_normalized FROM user_ids WHERE id = ?", String.class, id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Moves the users and index entries on {@code source} that {@code target}
+     * places elsewhere, one batch at a time with writers held off.
+     *
+     * @return the number of users moved
+     */
+    private long move(Shard source, ConsistentHashRing<Shard> target) {
+        long moved = 0;
+        for (long afterId = 0; ; ) {
+            moveLock.writeLock().lock();
+            try {
+                List<User> batch = source.jdbcTemplate().query(
+                        SELECT_USERS + " WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                        USER_ROW_MAPPER, afterId, MOVE_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+                Map<Shard, List<User>> leaving = new LinkedHashMap<>();
+                for (User user : batch) {
+                    Shard owner = target.nodeFor(user.getEmailNormalized());
+                    if (owner != source) {
+                        leaving.computeIfAbsent(owner, shard -> new ArrayList<>()).add(user);
+                    }
+                }
+                for (Map.Entry<Shard, List<User>> entry : leaving.entrySet()) {
+                    List<User> users = entry.getValue();
+                    copy(entry.getKey(), INSERT_USER, users.stream().map(ShardedUserStore::insertValues).toList());
+                    deleteIds(source, "users", users.stream().map(User::getId).toList());
+                    moved += users.size();
+                }
+            } finally {
+                moveLock.writeLock().unlock();
+            }
+        }
+        for (long afterId = 0; ; ) {
+            moveLock.writeLock().lock();
+            try {
+                List<IndexEntry> batch = source.jdbcTemplate().query(
+                        SELECT_INDEX + " WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                        INDEX_ROW_MAPPER, afterId, MOVE_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).id();
+                Map<Shard, List<IndexEntry>> leaving = new LinkedHashMap<>();
+                for (IndexEntry entry : batch) {
+                    Shard owner = target.nodeFor(idKey(entry.id()));
+                    if (owner != source) {
+                        leaving.computeIfAbsent(owner, shard -> new ArrayList<>()).add(entry);
+                    }
+                }
+                for (Map.Entry<Shard, List<IndexEntry>> entry : leaving.entrySet()) {
+                    List<IndexEntry> entries = entry.getValue();
+                    copy(entry.getKey(), INSERT_INDEX, entries.stream()
+                            .map(index -> new Object[]{index.id(), index.emailNormalized()})
+                            .toList());
+                    deleteIds(source, "user_ids", entries.stream().map(IndexEntry::id).toList());
+                }
+            } finally {
+                moveLock.writeLock().unlock();
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Inserts the rows, skipping any the destination already holds: a copy a
+     * writer put there is newer, and a copy from an earlier failed move is
+     * the same row.
+     */
+    private static void copy(Shard destination, String insert, List<Object[]> rows) {
+        try {
+            destination.jdbcTemplate().batchUpdate(insert, rows);
+        } catch (DuplicateKeyException e) {
+            for (Object[] row : rows) {
+                try {
+                    destination.jdbcTemplate().update(insert, row);
+                } catch (DuplicateKeyException alreadyThere) {
+                    // Keep the destination's copy
+                }
+            }
+        }
+    }
+
+    private static void deleteIds(Shard shard, String table, List<Long> ids) {
+        shard.jdbcTemplate().batchUpdate("DELETE FROM " + table + " WHERE id = ?",
+                ids.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    private void switchTo(Topology next) {
+        // Waits for in-flight writers, which planned their writes on the old topology
+        moveLock.writeLock().lock();
+        try {
+            topology = next;
+        } finally {
+            moveLock.writeLock().unlock();
+        }
+    }
+
+    private static boolean update(Shard shard, User user, String sql, Object key, LocalDateTime now) {
+        return shard.jdbcTemplate().update(sql, user.getEmail(), user.getEmailNormalized(), user.getName(),
+                user.getPhone(), user.getAddress(), user.getCity(), user.getState(), user.getZipCode(),
+                user.getCountry(), Timestamp.valueOf(now), key) > 0;
+    }
+
+    private static <T> List<User> queryIn(Shard shard, String column, List<T> values) {
+        List<List<User>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_CHUNK_SIZE) {
+            List<T> chunk = values.subList(from, Math.min(from + IN_CHUNK_SIZE, values.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            chunks.add(shard.jdbcTemplate().query(
+                    SELECT_USERS + " WHERE " + column + " IN (" + placeholders + ") ORDER BY id",
+                    USER_ROW_MAPPER, chunk.toArray()));
+        }
+        return merge(chunks, BY_ID);
+    }
+
+    private <R> List<R> scatter(Topology current, Function<Shard, R> query) {
+        List<CompletableFuture<R>> futures = current.nodes().stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), executor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static List<User> merge(List<List<User>> sortedLists, Comparator<User> order) {
+        // k-way merge of per-shard results, each already sorted
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing((Cursor c) -> c.head, order));
+        int total = 0;
+        for (List<User> users : sortedLists) {
+            total += users.size();
+            Iterator<User> iterator = users.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Cursor(iterator.next(), iterator));
+            }
+        }
+        List<User> merged = new ArrayList<>(total);
+        Set<Long> seen = new HashSet<>();
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            // Skip the second copy of a user read from both its old and new shard
+            if (seen.add(cursor.head.getId())) {
+                merged.add(cursor.head);
+            }
+            if (cursor.rest.hasNext()) {
+                cursor.head = cursor.rest.next();
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static int rowsToFetch(long offset, int limit) {
+        return (int) Math.min(Integer.MAX_VALUE, offset + limit);
+    }
+
+    private static List<User> page(List<User> merged, long offset, int limit) {
+        int from = (int) Math.min(offset, merged.size());
+        return merged.subList(from, (int) Math.min(from + (long) limit, merged.size()));
+    }
+
+    private static Object[] insertValues(User user) {
+        return new Object[]{user.getId(), user.getEmail(), user.getEmailNormalized(), user.getName(),
+                user.getPhone(), user.getAddress(), user.getCity(), user.getState(), user.getZipCode(),
+                user.getCountry(), user.getVersion(), toTimestamp(user.getCreatedAt()),
+                toTimestamp(user.getUpdatedAt())};
+    }
+
+    private static String idKey(long id) {
+        // Emails always contain '@', so ID keys never collide with them on the ring
+        return "id:" + id;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value == null ? null : value.toLocalDateTime();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Shard(String name, JdbcTemplate jdbcTemplate) {
+    }
+
+    private record Located(Shard shard, User user) {
+    }
+
+    private record IndexEntry(long id, String emailNormalized) {
+    }
+
+    /**
+     * The ring keys are placed on, and during a shard move the ring they
+     * were placed on before it.
+     */
+    private record Topology(ConsistentHashRing<Shard> ring, ConsistentHashRing<Shard> previous) {
+
+        /**
+         * @return the key's owner on the previous ring, if a move is under way and it differs
+         */
+        Shard previousOwner(String key) {
+            if (previous == null) {
+                return null;
+            }
+            Shard owner = previous.nodeFor(key);
+            return owner == ring.nodeFor(key) ? null : owner;
+        }
+
+        /**
+         * @return every shard that may hold users
+         */
+        Collection<Shard> nodes() {
+            if (previous == null) {
+                return ring.nodes();
+            }
+            Set<Shard> nodes = new LinkedHashSet<>(ring.nodes());
+            nodes.addAll(previous.nodes());
+            return nodes;
+        }
+    }
+
+    private record Key(Long id, String emailNormalized, String name) implements UserKeyView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getEmailNormalized() {
+            return emailNormalized;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class Cursor {
+        private User head;
+        private final Iterator<User> rest;
+
+        private Cursor(User head, Iterator<User> rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+    }
+}
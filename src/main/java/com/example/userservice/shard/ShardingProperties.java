@@ -0,0 +1,45 @@
+package com.example.userservice.shard;
+
+import lombok.Data;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded user store settings ({@code user.sharding.*}).
+ */
+@Data
+@ConfigurationProperties("user.sharding")
+public class ShardingProperties {
+
+    /**
+     * Whether the sharded user store is created.
+     */
+    private boolean enabled;
+
+    /**
+     * Points per shard on the hash ring; more points give a more even spread.
+     */
+    private int virtualNodes = 160;
+
+    /**
+     * Sequence that allocates user IDs, on the first shard listed. It is
+     * shared by every instance, so IDs stay unique across shards and nodes.
+     */
+    private String idSequence = "users_id_seq";
+
+    /**
+     * Threads running per-shard queries, shared by all requests. Each
+     * scatter-gather query takes one thread per shard, so size this for the
+     * concurrent requests expected times the shard count.
+     */
+    private int queryThreads = 64;
+
+    /**
+     * Shard connection settings. Each shard's name places it on the ring and
+     * must not change once data has been written; it defaults to shard-N.
+     */
+    private List<DataSourceProperties> shards = new ArrayList<>();
+}
@@ -0,0 +1,40 @@
+package com.example.userservice.util;
+
+/**
+ * 64-bit string hash shared by the email Bloom filter, the hot-key sketch
+ * and the shard ring: FNV-1a over the UTF-16 code units, finalised with the
+ * MurmurHash3 mixer so every input bit affects every output bit. The result
+ * depends only on the string, so it is the same on every JVM and release;
+ * shard placement relies on that.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * @param value the string to hash
+     * @return its 64-bit hash
+     */
+    public static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Scrambles the bits of a 64-bit value, e.g. to derive a second hash from
+     * a first or to spread a weak {@code hashCode()}.
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
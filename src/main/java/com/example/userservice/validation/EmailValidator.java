@@ -0,0 +1,84 @@
+package com.example.userservice.validation;
+
+/**
+ * Single-pass, allocation-free email format check.
+ *
+ * <p>Accepts exactly the inputs matched by
+ * {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$} up to
+ * {@value #MAX_LENGTH} characters, without building a {@code Matcher} or
+ * backtracking on long domains.
+ */
+public final class EmailValidator {
+
+    /**
+     * Longest accepted email, per the RFC 5321 path length limit.
+     */
+    public static final int MAX_LENGTH = 254;
+
+    private static final int MIN_TLD_LENGTH = 2;
+
+    private EmailValidator() {
+    }
+
+    /**
+     * Checks whether the value is a well-formed email.
+     *
+     * @param email the value to check, may be null
+     * @return true if the value is a valid email of at most {@value #MAX_LENGTH} characters
+     */
+    public static boolean isValid(String email) {
+        if (email == null) {
+            return false;
+        }
+        int length = email.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return false;
+        }
+
+        // Local part: one or more of [A-Za-z0-9+_.-] up to the '@'
+        int at = 0;
+        while (at < length && email.charAt(at) != '@') {
+            if (!isLocalChar(email.charAt(at))) {
+                return false;
+            }
+            at++;
+        }
+        if (at == 0 || at == length) {
+            return false;
+        }
+
+        // Domain: [A-Za-z0-9.-], whose last dot must have at least one
+        // character before it and only ASCII letters after it
+        int domainStart = at + 1;
+        int lastDot = -1;
+        for (int i = domainStart; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot <= domainStart || length - lastDot - 1 < MIN_TLD_LENGTH) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isLetterOrDigit(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+}
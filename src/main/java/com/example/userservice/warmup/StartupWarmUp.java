@@ -0,0 +1,202 @@
+package com.example.userservice.warmup;
+
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.cache.LookupIndexInitializer;
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.cache.UserEmailCache;
+import com.example.userservice.exception.InvalidEmailException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.hotkey.HotKeyTracker;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserStore;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserServiceImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepares the service for traffic before it reports ready. Spring Boot
+ * moves readiness to {@code ACCEPTING_TRAFFIC} only after every
+ * {@link ApplicationRunner} has returned, so until this one finishes
+ * {@code /actuator/health/readiness} reports {@code OUT_OF_SERVICE}.
+ *
+ * <p>In order: loads the lookup indexes, opens each pool's minimum idle
+ * connections, loads the most recently updated users into the second-level
+ * cache, calls {@code getUserByEmail} with their emails until the JIT has
+ * compiled the lookup path, makes a few {@code findUsersByName} searches,
+ * and finally puts the users into the email cache. Each email is evicted
+ * before it is looked up, so the lookups go through the bloom filter,
+ * request coalescing and the database rather than the email cache, and
+ * every other lookup uses an unknown email to exercise the bloom filter's
+ * rejection path. Each warm-up step is best effort: a failure is logged and
+ * the next step still runs.
+ *
+ * <p>The synthetic calls say nothing about real traffic, so afterwards the
+ * service timers, result size summaries and repository timers are removed
+ * (they are registered again on first use), and the bloom filter and
+ * request coalescing counters and the hot key report are cleared.
+ */
+@Slf4j
+public class StartupWarmUp implements ApplicationRunner {
+
+    /**
+     * Looked up when there are no users yet, exercising the not-found path.
+     */
+    private static final String SYNTHETIC_EMAIL = "warm-up@example.com";
+    private static final String SYNTHETIC_NAME = "warm";
+
+    /**
+     * Meters that the synthetic calls record to, removed once they are done.
+     */
+    private static final List<String> WARMED_METERS = List.of(UserService.SERVICE_TIMER,
+            UserServiceImpl.RESULT_SIZE_SUMMARY, "spring.data.repository.invocations");
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final WarmUpProperties properties;
+    private final LookupIndexInitializer lookupIndexInitializer;
+    private final List<HikariDataSource> pools;
+    private final UserStore userRepository;
+    private final UserEmailCache userEmailCache;
+    private final UserService userService;
+    private final UserServiceImpl userServiceImpl;
+    private final HotKeyTracker<String> emailHotKeys;
+    private final EmailBloomFilter emailBloomFilter;
+    private final List<SingleFlight<?, ?>> lookupFlights;
+    private final MeterRegistry meterRegistry;
+
+    public StartupWarmUp(WarmUpProperties properties, LookupIndexInitializer lookupIndexInitializer,
+                         List<HikariDataSource> pools, UserStore userRepository,
+                         UserEmailCache userEmailCache, UserService userService,
+                         UserServiceImpl userServiceImpl, HotKeyTracker<String> emailHotKeys,
+                         EmailBloomFilter emailBloomFilter, List<SingleFlight<?, ?>> lookupFlights,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.lookupIndexInitializer = lookupIndexInitializer;
+        this.pools = pools;
+        this.userRepository = userRepository;
+        this.userEmailCache = userEmailCache;
+        this.userService = userService;
+        this.userServiceImpl = userServiceImpl;
+        this.emailHotKeys = emailHotKeys;
+        this.emailBloomFilter = emailBloomFilter;
+        this.lookupFlights = lookupFlights;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        lookupIndexInitializer.initialize();
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int connections = openConnections();
+        List<User> recent = loadRecentUsers();
+        long deadline = start + properties.getTimeout().toNanos();
+        int calls = exerciseEmailLookups(recent, deadline) + exerciseNameSearches(recent, deadline);
+        recent.forEach(userEmailCache::put);
+        discardWarmUpMetrics();
+        log.info("Warm-up opened {} connections, cached {} users and made {} lookups in {} ms",
+                connections, recent.size(), calls, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int openConnections() {
+        int opened = 0;
+        for (HikariDataSource pool : pools) {
+            List<Connection> held = new ArrayList<>();
+            try {
+                // The pool starts on its first borrow and only then knows its minimum
+                held.add(pool.getConnection());
+                while (held.size() < pool.getMinimumIdle()) {
+                    held.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                log.warn("Warm-up could not open connections for pool {}", pool.getPoolName(), e);
+            } finally {
+                opened += held.size();
+                held.forEach(StartupWarmUp::closeQuietly);
+            }
+        }
+        return opened;
+    }
+
+    private List<User> loadRecentUsers() {
+        if (properties.getRecentUsers() <= 0) {
+            return List.of();
+        }
+        try {
+            // Loading the entities also puts them into the second-level cache
+            return userRepository.findRecentlyUpdated(PageRequest.of(0, properties.getRecentUsers()));
+        } catch (DataAccessException e) {
+            log.warn("Warm-up could not load recent users", e);
+            return List.of();
+        }
+    }
+
+    private int exerciseEmailLookups(List<User> recent, long deadline) {
+        List<String> emails = recent.isEmpty() ? List.of(SYNTHETIC_EMAIL)
+                : recent.stream().map(User::getEmail).toList();
+
+        int calls = 0;
+        try {
+            for (int i = 0; i < properties.getIterations() && System.nanoTime() < deadline; i++) {
+                // Alternate stored emails, read past the email cache, with emails the bloom filter rejects
+                String email = i % 2 == 0 ? emails.get(i / 2 % emails.size()) : "warm-up-" + i + "@example.com";
+                userEmailCache.invalidate(email);
+                try {
+                    userService.getUserByEmail(email);
+                } catch (UserNotFoundException | InvalidEmailException e) {
+                    // Expected for the synthetic emails, a user deleted meanwhile or a legacy email
+                }
+                calls++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up email lookups stopped after {} calls", calls, e);
+        }
+        return calls;
+    }
+
+    private int exerciseNameSearches(List<User> recent, long deadline) {
+        List<String> names = recent.isEmpty() ? List.of(SYNTHETIC_NAME)
+                : recent.stream().map(user -> StringUtils.left(user.getName(), MAX_NAME_LENGTH)).toList();
+
+        int calls = 0;
+        try {
+            int searches = Math.min(properties.getNameSearches(), properties.getIterations());
+            for (int i = 0; i < searches && System.nanoTime() < deadline; i++) {
+                userServiceImpl.findUsersByName(names.get(i % names.size()));
+                calls++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up name searches stopped after {} calls", calls, e);
+        }
+        return calls;
+    }
+
+    private void discardWarmUpMetrics() {
+        WARMED_METERS.forEach(name -> meterRegistry.find(name).meters().forEach(meterRegistry::remove));
+        emailBloomFilter.resetCounters();
+        lookupFlights.forEach(SingleFlight::resetCounters);
+        emailHotKeys.clear();
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to return warm-up connection", e);
+        }
+    }
+}
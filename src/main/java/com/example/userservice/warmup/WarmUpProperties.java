@@ -0,0 +1,43 @@
+package com.example.userservice.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Startup warm-up settings ({@code user.warmup.*}).
+ */
+@Data
+@ConfigurationProperties("user.warmup")
+public class WarmUpProperties {
+
+    /**
+     * Whether the pool, caches and hot paths are warmed before the service
+     * reports ready. The lookup indexes are loaded either way.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of most recently updated users loaded into the caches.
+     */
+    private int recentUsers = 1000;
+
+    /**
+     * Synthetic calls made to each warmed lookup path, enough for the JIT
+     * to compile them.
+     */
+    private int iterations = 10000;
+
+    /**
+     * Upper bound on the synthetic name searches, each of which queries the
+     * database.
+     */
+    private int nameSearches = 100;
+
+    /**
+     * Upper bound on the synthetic calls, so a slow database cannot hold
+     * readiness back indefinitely.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -1,15 +1,15 @@
 -- Sample data for testing
-INSERT INTO users (email, name, phone, address, city, country, created_at, updated_at) 
-VALUES ('john.doe@example.com', 'John Doe', '+1-555-0101', '123 Main Street', 'New York', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO users (email, email_normalized, name, phone, address, city, country, created_at, updated_at) 
+VALUES ('john.doe@example.com', 'john.doe@example.com', 'John Doe', '+1-555-0101', '123 Main Street', 'New York', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
-INSERT INTO users (email, name, phone, address, city, country, created_at, updated_at) 
-VALUES ('jane.smith@example.com', 'Jane Smith', '+1-555-0102', '456 Oak Avenue', 'Los Angeles', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO users (email, email_normalized, name, phone, address, city, country, created_at, updated_at) 
+VALUES ('jane.smith@example.com', 'jane.smith@example.com', 'Jane Smith', '+1-555-0102', '456 Oak Avenue', 'Los Angeles', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
-INSERT INTO users (email, name, phone, address, city, country, created_at, updated_at) 
-VALUES ('bob.johnson@example.com', 'Bob Johnson', '+1-555-0103', '789 Pine Road', 'Chicago', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO users (email, email_normalized, name, phone, address, city, country, created_at, updated_at) 
+VALUES ('bob.johnson@example.com', 'bob.johnson@example.com', 'Bob Johnson', '+1-555-0103', '789 Pine Road', 'Chicago', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
-INSERT INTO users (email, name, phone, address, city, country, created_at, updated_at) 
-VALUES ('alice.williams@example.com', 'Alice Williams', '+1-555-0104', '321 Elm Street', 'Houston', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO users (email, email_normalized, name, phone, address, city, country, created_at, updated_at) 
+VALUES ('alice.williams@example.com', 'alice.williams@example.com', 'Alice Williams', '+1-555-0104', '321 Elm Street', 'Houston', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
-INSERT INTO users (email, name, phone, address, city, country, created_at, updated_at) 
-VALUES ('charlie.brown@example.com', 'Charlie Brown', '+1-555-0105', '654 Maple Drive', 'Phoenix', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
\ No newline at end of file
+INSERT INTO users (email, email_normalized, name, phone, address, city, country, created_at, updated_at) 
+VALUES ('charlie.brown@example.com', 'charlie.brown@example.com', 'Charlie Brown', '+1-555-0105', '654 Maple Drive', 'Phoenix', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
\ No newline at end of file
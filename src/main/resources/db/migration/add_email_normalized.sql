@@ -0,0 +1,11 @@
+-- Adds the indexed email_normalized column used by UserRepository.findByEmailIgnoreCase.
+-- Apply to existing databases before deploying; ddl-auto environments create it automatically.
+-- The unique index fails if two rows differ only by email case: resolve those first.
+
+ALTER TABLE users ADD COLUMN email_normalized VARCHAR(255);
+
+UPDATE users SET email_normalized = LOWER(TRIM(email));
+
+ALTER TABLE users ALTER COLUMN email_normalized SET NOT NULL;
+
+CREATE UNIQUE INDEX idx_users_email_normalized ON users (email_normalized);
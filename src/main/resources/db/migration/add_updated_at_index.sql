@@ -0,0 +1,6 @@
+-- Indexes users.updated_at, read by UserRepository.findKeysUpdatedSince on every
+-- lookup index refresh and sorted on by findRecentlyUpdated at startup.
+-- Apply to existing databases (and to every shard) before deploying; ddl-auto
+-- environments create it automatically.
+
+CREATE INDEX idx_users_updated_at ON users (updated_at);
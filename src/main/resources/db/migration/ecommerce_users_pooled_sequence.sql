@@ -0,0 +1,21 @@
+-- Moves the ecommerce users table from IDENTITY IDs to the pooled users_seq
+-- sequence (allocationSize 100) that lets Hibernate batch inserts.
+-- Apply to existing databases before deploying, with writers stopped; ddl-auto
+-- environments create the sequence automatically. Written for PostgreSQL.
+--
+-- Hibernate's pooled optimizer hands out the 100 IDs ending at each value it
+-- draws from the sequence, so the sequence must step by 100 and start at least
+-- 100 above the highest existing ID.
+
+-- Inserts now supply the ID, which GENERATED ALWAYS columns reject
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 100;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 100 FROM users));
+
+-- Other databases:
+--   MySQL has no sequences; Hibernate falls back to a users_seq table, which
+--   must hold a next_val of at least MAX(id) + 100.
+--   H2: ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+--       CREATE SEQUENCE users_seq START WITH <MAX(id) + 100> INCREMENT BY 100;
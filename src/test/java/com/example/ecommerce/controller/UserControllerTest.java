@@ -0,0 +1,110 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.UserVersion;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.UserChangeFeed;
+import com.example.ecommerce.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserController.class)
+class UserControllerTest {
+
+    private static final Instant UPDATED_AT = Instant.parse("2024-01-01T09:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService service;
+
+    @MockBean
+    private UserChangeFeed changeFeed;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User(1L, "Jane", "jane@example.com", "customer", true);
+        user.setVersion(3L);
+        user.setUpdatedAt(UPDATED_AT);
+        when(service.getUserVersion(1L)).thenReturn(UserVersion.of(user));
+        when(service.getUserById(1L)).thenReturn(user);
+    }
+
+    @Test
+    void getUserById_NoConditionalHeaders_ReturnsUserWithValidators() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, UPDATED_AT.toEpochMilli()))
+                .andExpect(jsonPath("$.name").value("Jane"));
+        verify(service, never()).getUserVersion(1L);
+    }
+
+    @Test
+    void getUserById_MatchingETag_NotModifiedWithoutLoadingUser() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(service, never()).getUserById(1L);
+    }
+
+    @Test
+    void getUserById_StaleETag_ReturnsUser() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(jsonPath("$.name").value("Jane"));
+    }
+
+    @Test
+    void getUserById_NotModifiedSince_NotModifiedWithoutLoadingUser() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_MODIFIED_SINCE, UPDATED_AT.toEpochMilli()))
+                .andExpect(status().isNotModified());
+        verify(service, never()).getUserById(1L);
+    }
+
+    @Test
+    void getUserById_ModifiedSince_ReturnsUser() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, UPDATED_AT.minusSeconds(60).toEpochMilli()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Jane"));
+    }
+
+    @Test
+    void getUserById_MissingUser_EmptyOkWithoutValidators() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUserById_MissingUserWithETag_EmptyOkWithoutValidators() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/2").header(HttpHeaders.IF_NONE_MATCH, "\"2-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().string(""));
+        verify(service).getUserVersion(2L);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.model.UserChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// data.sql holds the user service sample rows, which do not fit this users table
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class UserChangeRepositoryTest {
+
+    @Autowired
+    private UserChangeRepository repository;
+
+    @Test
+    void deleteSuperseded_KeepsLatestChangeOfEachUser() {
+        // Arrange
+        UserChange created1 = repository.save(new UserChange(UserChange.Type.CREATED, user(1L, "First")));
+        repository.save(new UserChange(UserChange.Type.CREATED, user(2L, "Second")));
+        repository.save(new UserChange(UserChange.Type.UPDATED, user(1L, "First renamed")));
+        UserChange deleted2 = repository.save(UserChange.deleted(2L));
+        repository.flush();
+
+        // Act
+        int removed = repository.deleteSuperseded();
+
+        // Assert
+        assertEquals(2, removed);
+        List<UserChange> remaining = repository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+                0L, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertEquals(2, remaining.size());
+        assertEquals("First renamed", remaining.get(0).getName());
+        assertTrue(remaining.get(0).getSeq() > created1.getSeq());
+        assertEquals(deleted2.getSeq(), remaining.get(1).getSeq());
+        assertEquals(UserChange.Type.DELETED, remaining.get(1).getType());
+    }
+
+    @Test
+    void deleteTombstonesBefore_DropsOnlyDeletesOlderThanCutoff() {
+        // Arrange
+        repository.save(new UserChange(UserChange.Type.CREATED, user(1L, "First")));
+        repository.save(UserChange.deleted(2L));
+        repository.flush();
+
+        // Act
+        int keptRecent = repository.deleteTombstonesBefore(Instant.now().minus(Duration.ofDays(1)));
+        int expired = repository.deleteTombstonesBefore(Instant.now().plusSeconds(60));
+
+        // Assert
+        assertEquals(0, keptRecent);
+        assertEquals(1, expired);
+        List<UserChange> remaining = repository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+                0L, Long.MAX_VALUE, PageRequest.of(0, 10));
+        assertEquals(List.of(UserChange.Type.CREATED), remaining.stream().map(UserChange::getType).toList());
+    }
+
+    @Test
+    void findBySeqRange_ReturnsOnlyChangesAfterCursorUpToWatermark() {
+        // Arrange
+        UserChange first = repository.save(new UserChange(UserChange.Type.CREATED, user(1L, "First")));
+        UserChange second = repository.save(new UserChange(UserChange.Type.CREATED, user(2L, "Second")));
+        repository.save(new UserChange(UserChange.Type.CREATED, user(3L, "Third")));
+        repository.flush();
+
+        // Act
+        List<UserChange> changes = repository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+                first.getSeq(), second.getSeq(), PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of(second.getSeq()), changes.stream().map(UserChange::getSeq).toList());
+    }
+
+    private static User user(Long id, String name) {
+        return new User(id, name, name.toLowerCase().replace(' ', '.') + "@example.com", "customer", true);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.dto.UserVersion;
+import com.example.ecommerce.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// data.sql holds the user service sample rows, which do not fit this users table
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository repository;
+
+    @Test
+    void findVersionById_ReturnsVersionAndUpdateTime() {
+        // Arrange
+        User user = repository.saveAndFlush(new User("Jane", "jane@example.com", "customer", true));
+
+        // Act
+        UserVersion version = repository.findVersionById(user.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(user.getId(), version.getId());
+        assertEquals(user.getVersion(), version.getVersion());
+        assertEquals(user.getUpdatedAt().toEpochMilli(), version.lastModifiedMillis());
+        assertEquals("\"" + user.getId() + "-" + user.getVersion() + "\"", version.eTag());
+    }
+
+    @Test
+    void findVersionById_AfterUpdate_ReturnsNewVersion() {
+        // Arrange
+        User user = repository.saveAndFlush(new User("Jane", "jane@example.com", "customer", true));
+        String before = repository.findVersionById(user.getId()).orElseThrow().eTag();
+
+        // Act
+        user.setName("Jane Smith");
+        repository.saveAndFlush(user);
+
+        // Assert
+        assertNotEquals(before, repository.findVersionById(user.getId()).orElseThrow().eTag());
+    }
+
+    @Test
+    void findVersionById_UnknownUser_ReturnsEmpty() {
+        // Act & Assert
+        assertTrue(repository.findVersionById(999L).isEmpty());
+    }
+}
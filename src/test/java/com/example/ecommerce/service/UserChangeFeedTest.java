@@ -0,0 +1,292 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.model.UserChange;
+import com.example.ecommerce.repository.UserChangeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserChangeFeedTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    // Stands in for the user_changes table
+    private final List<UserChange> table = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private UserChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = feed(1000, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(emitter -> emitter.release.countDown());
+        feed.shutdown();
+    }
+
+    @Test
+    void subscribe_ReplaysChangesAfterLastEventId() throws Exception {
+        // Arrange
+        for (long userId = 1; userId <= 5; userId++) {
+            committed(userId);
+        }
+
+        // Act
+        feed.subscribe(3);
+
+        // Assert
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals("4", emitter.nextId());
+        assertEquals("5", emitter.nextId());
+        assertNull(emitter.ids.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_BacklogLargerThanBuffer_ReplayedInOrder() throws Exception {
+        // Arrange
+        feed.shutdown();
+        feed = feed(2, Duration.ofSeconds(30));
+        for (long userId = 1; userId <= 7; userId++) {
+            committed(userId);
+        }
+
+        // Act
+        feed.subscribe(0);
+
+        // Assert
+        RecordingEmitter emitter = emitters.get(0);
+        for (int seq = 1; seq <= 7; seq++) {
+            assertEquals(String.valueOf(seq), emitter.nextId());
+        }
+    }
+
+    @Test
+    void record_LaterTransactionCommitsFirst_HeldBackUntilEarlierCommits() throws Exception {
+        // Arrange
+        feed.subscribe(0);
+        RecordingEmitter emitter = emitters.get(0);
+        TransactionSynchronization first = recordInTransaction(user(1L));
+        TransactionSynchronization second = recordInTransaction(user(2L));
+
+        // Act: seq 2 commits while seq 1 is still in flight
+        second.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertNull(emitter.ids.poll(200, TimeUnit.MILLISECONDS));
+        first.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals("1", emitter.nextId());
+        assertEquals("2", emitter.nextId());
+    }
+
+    @Test
+    void record_RolledBackTransaction_DoesNotHoldBackLaterChanges() throws Exception {
+        // Arrange
+        feed.subscribe(0);
+        RecordingEmitter emitter = emitters.get(0);
+        TransactionSynchronization rolledBack = recordInTransaction(user(1L));
+        table.clear();
+        TransactionSynchronization committed = recordInTransaction(user(2L));
+
+        // Act
+        committed.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        rolledBack.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals("2", emitter.nextId());
+    }
+
+    @Test
+    void dispatch_SlowSubscriber_DoesNotDelayOthers() throws Exception {
+        // Arrange
+        feed.subscribe(0);
+        feed.subscribe(0);
+        RecordingEmitter slow = emitters.get(0);
+        RecordingEmitter fast = emitters.get(1);
+        slow.blocked = true;
+
+        // Act
+        recordInTransaction(user(1L)).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        recordInTransaction(user(2L)).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals("1", fast.nextId());
+        assertEquals("2", fast.nextId());
+        assertTrue(slow.ids.isEmpty());
+    }
+
+    @Test
+    void heartbeat_SubscriberStalledWithFullBuffer_Completed() throws Exception {
+        // Arrange
+        feed.shutdown();
+        feed = feed(1, Duration.ZERO);
+        feed.subscribe(0);
+        RecordingEmitter stalled = emitters.get(0);
+        stalled.blocked = true;
+        recordInTransaction(user(1L)).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        assertTrue(stalled.sending.await(WAIT_SECONDS, TimeUnit.SECONDS));
+
+        // Act: the first heartbeat fills the one-slot buffer behind the blocked send, if nothing else has
+        feed.heartbeat();
+        feed.heartbeat();
+
+        // Assert
+        assertTrue(stalled.completed.await(WAIT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void subscribe_AboveMaxSubscribers_IsRejected() {
+        // Arrange
+        feed.shutdown();
+        feed = feed(1000, Duration.ofSeconds(30), 2);
+        feed.subscribe(0);
+        feed.subscribe(0);
+
+        // Act & Assert
+        assertThrows(ChangeFeedFullException.class, () -> feed.subscribe(0));
+    }
+
+    @Test
+    void subscribe_AfterSubscriberCompletes_AcceptsAnother() {
+        // Arrange
+        feed.shutdown();
+        feed = feed(1000, Duration.ofSeconds(30), 1);
+        feed.subscribe(0);
+        emitters.get(0).complete();
+
+        // Act
+        feed.subscribe(0);
+
+        // Assert
+        assertEquals(2, emitters.size());
+    }
+
+    private UserChangeFeed feed(int bufferSize, Duration stallTimeout) {
+        return feed(bufferSize, stallTimeout, 100);
+    }
+
+    private UserChangeFeed feed(int bufferSize, Duration stallTimeout, int maxSubscribers) {
+        UserChangeRepository repository = mock(UserChangeRepository.class);
+        when(repository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    long after = invocation.getArgument(0);
+                    long upTo = invocation.getArgument(1);
+                    Pageable page = invocation.getArgument(2);
+                    return table.stream()
+                            .filter(change -> change.getSeq() > after && change.getSeq() <= upTo)
+                            .limit(page.getPageSize())
+                            .toList();
+                });
+        UserChangeFeed created = new UserChangeFeed(repository, 100, Duration.ofMinutes(1), bufferSize,
+                stallTimeout, maxSubscribers, Duration.ofDays(7)) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        EntityManager entityManager = mock(EntityManager.class);
+        doAnswer(invocation -> {
+            UserChange change = invocation.getArgument(0);
+            ReflectionTestUtils.setField(change, "seq", sequence.incrementAndGet());
+            table.add(change);
+            return null;
+        }).when(entityManager).persist(any(UserChange.class));
+        ReflectionTestUtils.setField(created, "entityManager", entityManager);
+        return created;
+    }
+
+    private void committed(long userId) {
+        UserChange change = new UserChange(UserChange.Type.CREATED, user(userId));
+        ReflectionTestUtils.setField(change, "seq", sequence.incrementAndGet());
+        table.add(change);
+    }
+
+    // Records a change in a transaction that is left open; completing the returned synchronization ends it
+    private TransactionSynchronization recordInTransaction(User user) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            feed.record(UserChange.Type.UPDATED, user);
+            return TransactionSynchronizationManager.getSynchronizations().get(0);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static User user(Long id) {
+        return new User(id, "User " + id, "user" + id + "@example.com", "customer", true);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> ids = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile boolean blocked;
+        private volatile Runnable onCompletion = () -> { };
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (blocked) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            List<String> lines = new ArrayList<>();
+            builder.build().forEach(part -> lines.add(String.valueOf(part.getData())));
+            String first = lines.get(0);
+            if (first.startsWith("id:")) {
+                ids.add(first.substring(3, first.indexOf('\n')));
+            }
+        }
+
+        // Without a servlet response the emitter never calls back, so completion runs the callback itself
+        @Override
+        public void onCompletion(Runnable callback) {
+            onCompletion = callback;
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            onCompletion.run();
+        }
+
+        private String nextId() throws InterruptedException {
+            return ids.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.UserBatchResult;
+import com.example.ecommerce.dto.UserRequest;
+import com.example.ecommerce.dto.UserUpdateRequest;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.ReactiveUserRepository;
+import com.example.ecommerce.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Runs against H2 without a test transaction, so each chunk commits or rolls back on its own
+// data.sql holds the user service sample rows, which do not fit this users table
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserServiceImplTest {
+
+    // Longer than the name column, so the row fails when its batch is flushed
+    private static final String TOO_LONG = "x".repeat(300);
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private PlatformTransactionManager countingTransactionManager;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void createUsers_WritesOneTransactionPerChunk() {
+        // Arrange
+        UserServiceImpl service = service(2);
+
+        // Act
+        UserBatchResult result = service.createUsers(List.of(request("a"), request("b"), request("c"),
+                request("d"), request("e")));
+
+        // Assert
+        assertEquals(5, result.getCreated());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(5, repository.count());
+        verify(countingTransactionManager, times(3)).getTransaction(any());
+    }
+
+    @Test
+    void createUsers_ChunkFails_RetriesItemsOneByOneAndReportsOffender() {
+        // Arrange
+        UserServiceImpl service = service(2);
+
+        // Act
+        UserBatchResult result = service.createUsers(List.of(request("a"), request(TOO_LONG), request("c"),
+                request("d")));
+
+        // Assert
+        assertEquals(4, result.getRequested());
+        assertEquals(3, result.getCreated());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals(3, repository.count());
+        // First chunk, its two retries, second chunk
+        verify(countingTransactionManager, times(4)).getTransaction(any());
+    }
+
+    @Test
+    void createUsers_InvalidItem_ReportedWithoutWriting() {
+        // Arrange
+        UserServiceImpl service = service(10);
+
+        // Act
+        UserBatchResult result = service.createUsers(List.of(request("a"), new UserRequest(null, "b@example.com",
+                "customer", true)));
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals("name is required", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void updateUsers_UpdatesChunkAndReportsUnknownUser() {
+        // Arrange
+        User first = repository.save(new User("First", "first@example.com", "customer", true));
+        User second = repository.save(new User("Second", "second@example.com", "customer", true));
+        UserServiceImpl service = service(10);
+
+        // Act
+        UserBatchResult result = service.updateUsers(List.of(
+                update(first.getId(), "First renamed"),
+                update(999_999L, "Nobody"),
+                update(second.getId(), "Second renamed")));
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("user not found", result.getErrors().get(0).getMessage());
+        User reloaded = repository.findById(first.getId()).orElseThrow();
+        assertEquals("First renamed", reloaded.getName());
+        assertEquals(first.getVersion() + 1, reloaded.getVersion());
+        verify(countingTransactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void updateUsers_ChunkFails_RetriesItemsOneByOne() {
+        // Arrange
+        User first = repository.save(new User("First", "first@example.com", "customer", true));
+        User second = repository.save(new User("Second", "second@example.com", "customer", true));
+        UserServiceImpl service = service(10);
+
+        // Act
+        UserBatchResult result = service.updateUsers(List.of(
+                update(first.getId(), "First renamed"),
+                update(999_999L, "Nobody"),
+                update(second.getId(), TOO_LONG)));
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(1, 2), result.getErrors().stream().map(UserBatchResult.ItemError::getIndex).toList());
+        assertEquals("user not found", result.getErrors().get(0).getMessage());
+        assertEquals("First renamed", repository.findById(first.getId()).orElseThrow().getName());
+        assertEquals("Second", repository.findById(second.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateUsers_MissingId_Reported() {
+        // Arrange
+        UserServiceImpl service = service(10);
+
+        // Act
+        UserBatchResult result = service.updateUsers(List.of(update(null, "No id")));
+
+        // Assert
+        assertEquals(0, result.getCreated());
+        assertEquals("id is required", result.getErrors().get(0).getMessage());
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserServiceImpl service(int batchSize) {
+        countingTransactionManager = spy(transactionManager);
+        ObjectProvider<UserWriteBehindQueue> noWriteBehind = mock(ObjectProvider.class);
+        UserServiceImpl service = new UserServiceImpl(repository, mock(ReactiveUserRepository.class),
+                countingTransactionManager, batchSize, mock(UserChangeFeed.class), noWriteBehind,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        return service;
+    }
+
+    private static UserRequest request(String name) {
+        return new UserRequest(name, name.substring(0, 1) + "@example.com", "customer", true);
+    }
+
+    private static UserUpdateRequest update(Long id, String name) {
+        return new UserUpdateRequest(id, name, "updated@example.com", "customer", true);
+    }
+}
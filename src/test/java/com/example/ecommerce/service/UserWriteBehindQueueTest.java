@@ -0,0 +1,306 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.model.UserChange;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserWriteBehindQueueTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+    private static final Function<Long, Optional<Long>> STORED_AT_VERSION_5 = id -> Optional.of(5L);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private UserChangeFeed changeFeed;
+
+    private final List<List<Object[]>> batches = new ArrayList<>();
+
+    private UserWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(mock(Cache.class));
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            batches.add(rows);
+            int[] updated = new int[rows.size()];
+            Arrays.fill(updated, 1);
+            return updated;
+        });
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void enqueue_RepeatedUpdatesToOneUser_CoalescedIntoOneWrite() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+
+        // Act
+        queue.enqueue(user(1L, "First"), STORED_AT_VERSION_5);
+        queue.enqueue(user(1L, "Second"), STORED_AT_VERSION_5);
+        queue.enqueue(user(1L, "Third"), STORED_AT_VERSION_5);
+
+        // Assert
+        assertEquals(1, queue.size());
+        assertEquals("Third", queue.pending(1L).orElseThrow().getName());
+        assertEquals(8L, queue.pending(1L).orElseThrow().getVersion());
+        assertTrue(queue.flush());
+        assertEquals(1, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals("Third", batches.get(0).get(0)[0]);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void enqueue_UnknownUser_ReturnsFalse() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+
+        // Act & Assert
+        assertFalse(queue.enqueue(user(1L, "Missing"), id -> Optional.empty()));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void enqueue_QueueFull_RejectedWithServiceUnavailable() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 1, NEVER);
+        queue.enqueue(user(1L, "First"), STORED_AT_VERSION_5);
+
+        // Act & Assert
+        assertThrows(WriteBehindUnavailableException.class,
+                () -> queue.enqueue(user(2L, "Second"), STORED_AT_VERSION_5));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                WriteBehindUnavailableException.class.getAnnotation(ResponseStatus.class).value());
+        // Another update to a queued user replaces it and needs no room
+        assertTrue(queue.enqueue(user(1L, "Replaced"), STORED_AT_VERSION_5));
+    }
+
+    @Test
+    void enqueue_FlushedAcknowledge_ReturnsAfterBatchCommits() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.FLUSHED, 10, Duration.ofMillis(10));
+
+        // Act
+        queue.enqueue(user(1L, "Flushed"), STORED_AT_VERSION_5);
+
+        // Assert
+        assertEquals(1, batches.size());
+        assertEquals(0, queue.size());
+        verify(changeFeed).record(eq(UserChange.Type.UPDATED), argThat(user -> user.getId() == 1L));
+    }
+
+    @Test
+    void flush_BatchFails_RetriesOneAtATimeAndDropsRejectedUpdate() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+        queue.enqueue(user(1L, "Good"), STORED_AT_VERSION_5);
+        queue.enqueue(user(2L, "Bad"), STORED_AT_VERSION_5);
+        doThrow(new DataIntegrityViolationException("duplicate email"))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            if (args[args.length - 2].equals(2L)) {
+                throw new DataIntegrityViolationException("duplicate email");
+            }
+            return 1;
+        }).when(jdbcTemplate).update(anyString(), any(Object[].class));
+
+        // Act
+        boolean emptied = queue.flush();
+
+        // Assert
+        assertTrue(emptied);
+        assertEquals(0, queue.size());
+        verify(changeFeed).record(eq(UserChange.Type.UPDATED), argThat(user -> user.getId() == 1L));
+        verify(changeFeed, never()).record(eq(UserChange.Type.UPDATED), argThat(user -> user.getId() == 2L));
+    }
+
+    @Test
+    void flush_UpdateKeepsFailing_RetriedThenDroppedAfterMaxAttempts() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+        queue.enqueue(user(1L, "Stuck"), STORED_AT_VERSION_5);
+        doThrow(new QueryTimeoutException("timeout")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        doThrow(new QueryTimeoutException("timeout")).when(jdbcTemplate).update(anyString(), any(Object[].class));
+
+        // Act & Assert: max-attempts is 3
+        assertFalse(queue.flush());
+        assertEquals(1, queue.size());
+        assertFalse(queue.flush());
+        assertEquals(1, queue.size());
+        assertTrue(queue.flush());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void flush_StoredVersionChanged_ConflictDroppedOthersWritten() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+        queue.enqueue(user(1L, "Current"), STORED_AT_VERSION_5);
+        queue.enqueue(user(2L, "Stale"), STORED_AT_VERSION_5);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+        // User 2 was updated elsewhere, so its row no longer has version 5
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return args[args.length - 2].equals(2L) ? 0 : 1;
+        }).when(jdbcTemplate).update(anyString(), any(Object[].class));
+
+        // Act
+        boolean emptied = queue.flush();
+
+        // Assert
+        assertTrue(emptied);
+        assertEquals(0, queue.size());
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        verify(changeFeed).record(eq(UserChange.Type.UPDATED), argThat(user -> user.getId() == 1L));
+        verify(changeFeed, never()).record(eq(UserChange.Type.UPDATED), argThat(user -> user.getId() == 2L));
+    }
+
+    @Test
+    void enqueue_CoalescedUpdates_CheckVersionFirstQueuedAgainst() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+        queue.enqueue(user(1L, "First"), STORED_AT_VERSION_5);
+        queue.enqueue(user(1L, "Second"), STORED_AT_VERSION_5);
+
+        // Act
+        queue.flush();
+
+        // Assert: sets version 7 where the row is still at version 5
+        Object[] args = batches.get(0).get(0);
+        assertEquals(7L, args[4]);
+        assertEquals(1L, args[args.length - 2]);
+        assertEquals(5L, args[args.length - 1]);
+    }
+
+    @Test
+    void enqueue_AfterShutdown_RejectedWithServiceUnavailable() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+        queue.shutdown();
+
+        // Act & Assert
+        WriteBehindUnavailableException e = assertThrows(WriteBehindUnavailableException.class,
+                () -> queue.enqueue(user(1L, "Late"), STORED_AT_VERSION_5));
+        assertEquals("User update queue is shut down", e.getMessage());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void discard_DuringFlush_WaitsForTheBatchToCommit() throws Exception {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+        queue.enqueue(user(1L, "Deleted"), STORED_AT_VERSION_5);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            commit.await();
+            return new int[]{1};
+        });
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> flush = threads.submit(queue::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            // Act
+            Future<?> discard = threads.submit(() -> queue.discard(1L));
+
+            // Assert: the delete cannot go ahead while the update is being written
+            assertThrows(TimeoutException.class, () -> discard.get(200, TimeUnit.MILLISECONDS));
+            commit.countDown();
+            discard.get(5, TimeUnit.SECONDS);
+            assertTrue(flush.get(5, TimeUnit.SECONDS));
+            assertEquals(0, queue.size());
+            verify(changeFeed).record(eq(UserChange.Type.UPDATED), argThat(user -> user.getId() == 1L));
+        } finally {
+            commit.countDown();
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void shutdown_FlushesQueuedUpdates() {
+        // Arrange
+        queue = queue(UserWriteBehindQueue.Acknowledge.ENQUEUED, 10, NEVER);
+        queue.enqueue(user(1L, "First"), STORED_AT_VERSION_5);
+        queue.enqueue(user(2L, "Second"), STORED_AT_VERSION_5);
+
+        // Act
+        queue.shutdown();
+
+        // Assert
+        assertEquals(0, queue.size());
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+    }
+
+    private UserWriteBehindQueue queue(UserWriteBehindQueue.Acknowledge acknowledge, int capacity,
+                                       Duration flushInterval) {
+        return new UserWriteBehindQueue(jdbcTemplate, transactionManager, entityManagerFactory, changeFeed,
+                capacity, 100, acknowledge, flushInterval, Duration.ofMillis(10), Duration.ofSeconds(5), 3);
+    }
+
+    private static User user(Long id, String name) {
+        return new User(id, name, name.toLowerCase() + "@example.com", "customer", true);
+    }
+}
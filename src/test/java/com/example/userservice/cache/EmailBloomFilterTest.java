@@ -0,0 +1,64 @@
+package com.example.userservice.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailBloomFilterTest {
+    
+    private EmailBloomFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        filter = new EmailBloomFilter(10_000, 0.01);
+    }
+    
+    @Test
+    void mightContain_NotReady_ReturnsTrue() {
+        assertTrue(filter.mightContain("absent@example.com"));
+    }
+    
+    @Test
+    void mightContain_InsertedEmail_ReturnsTrueIgnoringCase() {
+        // Arrange
+        filter.put("John.Doe@Example.com");
+        filter.markReady();
+        
+        // Act & Assert
+        assertTrue(filter.mightContain("john.doe@example.com"));
+        assertTrue(filter.mightContain("JOHN.DOE@EXAMPLE.COM"));
+    }
+    
+    @Test
+    void mightContain_AbsentEmails_FalsePositiveRateWithinBound() {
+        // Arrange
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        filter.markReady();
+        
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        
+        // Assert
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.03);
+    }
+    
+    @Test
+    void observedFalsePositiveRate_CountsRecordedFalsePositives() {
+        // Arrange
+        filter.markReady();
+        filter.mightContain("absent@example.com");
+        filter.recordFalsePositive();
+        
+        // Act & Assert
+        assertEquals(0.5, filter.observedFalsePositiveRate(), 0.0001);
+    }
+}
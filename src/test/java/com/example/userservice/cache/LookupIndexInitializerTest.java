@@ -0,0 +1,134 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.index.NameTrigramIndex;
+import com.example.userservice.repository.UserKeyView;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LookupIndexInitializerTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    private EmailBloomFilter emailBloomFilter;
+    
+    private NameTrigramIndex nameTrigramIndex;
+    
+    private LookupIndexInitializer initializer;
+    
+    @BeforeEach
+    void setUp() {
+        emailBloomFilter = new EmailBloomFilter(10_000, 0.01);
+        nameTrigramIndex = new NameTrigramIndex();
+        // No background refresh; the tests call refresh() directly
+        initializer = new LookupIndexInitializer(userRepository, emailBloomFilter, nameTrigramIndex, Duration.ZERO);
+        when(userRepository.streamAllKeys()).thenReturn(Stream.of(key(1L, "john.doe@example.com", "John Doe")));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        initializer.shutdown();
+    }
+    
+    @Test
+    void initialize_LoadsStoredUsersAndMarksReady() {
+        // Act
+        initializer.initialize();
+        
+        // Assert
+        assertTrue(emailBloomFilter.isReady());
+        assertTrue(emailBloomFilter.mightContain("john.doe@example.com"));
+        assertFalse(emailBloomFilter.mightContain("jane.smith@example.com"));
+        assertEquals(List.of(1L), nameTrigramIndex.search("john").orElseThrow());
+    }
+    
+    @Test
+    void initialize_CalledTwice_SchedulesOneRefresh() {
+        // Arrange
+        LookupIndexInitializer refreshing =
+                new LookupIndexInitializer(userRepository, emailBloomFilter, nameTrigramIndex, Duration.ofHours(1));
+        when(userRepository.streamAllKeys())
+                .thenReturn(Stream.of(key(1L, "john.doe@example.com", "John Doe")))
+                .thenReturn(Stream.of(key(1L, "john.doe@example.com", "John Doe")));
+        
+        try {
+            // Act
+            refreshing.initialize();
+            refreshing.initialize();
+            
+            // Assert
+            assertEquals(1, refreshing.scheduledRefreshes());
+        } finally {
+            refreshing.shutdown();
+        }
+    }
+    
+    @Test
+    void refresh_UserCreatedByAnotherInstance_NoLongerReportedAbsent() {
+        // Arrange
+        initializer.initialize();
+        when(userRepository.findKeysUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(List.of(key(2L, "jane.smith@example.com", "Jane Smith")));
+        
+        // Act
+        initializer.refresh();
+        
+        // Assert
+        assertTrue(emailBloomFilter.mightContain("jane.smith@example.com"));
+        assertEquals(List.of(2L), nameTrigramIndex.search("smith").orElseThrow());
+    }
+    
+    @Test
+    void refresh_QueryFails_RetriesFromSameTimeNextTime() {
+        // Arrange
+        initializer.initialize();
+        when(userRepository.findKeysUpdatedSince(any(LocalDateTime.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of());
+        
+        // Act
+        initializer.refresh();
+        initializer.refresh();
+        
+        // Assert
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userRepository, times(2)).findKeysUpdatedSince(captor.capture());
+        assertEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+    }
+    
+    private static UserKeyView key(Long id, String email, String name) {
+        return new UserKeyView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public String getEmailNormalized() {
+                return email;
+            }
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.userservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    
+    @Test
+    void execute_ConcurrentCallersSameKey_RunLoaderOnce() throws Exception {
+        // Arrange
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute("key", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value";
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.getCoalesced() < callers - 1) {
+                assertTrue(System.nanoTime() < deadline, "callers were not coalesced within 5 seconds");
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(callers - 1, flight.getCoalesced());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void execute_LoaderThrows_PropagatesAndAllowsRetry() {
+        // Arrange
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5));
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> flight.execute("key", () -> { throw new IllegalStateException("boom"); }));
+        assertEquals("value", flight.execute("key", () -> "value"));
+    }
+    
+    @Test
+    void execute_InFlightLoadTooSlow_LoadsAfterTimeout() throws Exception {
+        // Arrange
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        try {
+            Future<String> slow = executor.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            
+            // Act
+            String value = flight.execute("key", () -> "own");
+            
+            // Assert
+            assertEquals("own", value);
+            assertEquals(1, flight.getTimedOut());
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void execute_CallerMayNotJoin_RunsOwnLoad() throws Exception {
+        // Arrange: e.g. a client that must read its own writes from the primary
+        ThreadLocal<Boolean> sticky = ThreadLocal.withInitial(() -> false);
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), () -> !sticky.get());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        try {
+            Future<String> replicaLoad = executor.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return "replica";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            
+            // Act
+            sticky.set(true);
+            String value = flight.execute("key", () -> "primary");
+            
+            // Assert
+            assertEquals("primary", value);
+            assertEquals(0, flight.getCoalesced());
+            release.countDown();
+            assertEquals("replica", replicaLoad.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
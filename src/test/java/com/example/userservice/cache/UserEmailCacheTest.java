@@ -0,0 +1,94 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEmailCacheTest {
+    
+    private UserEmailCache cache;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new UserEmailCache(100, Duration.ofMinutes(1));
+        user = User.builder().id(1L).email("John.Doe@example.com").name("John Doe").version(1L).build();
+    }
+    
+    @Test
+    void get_ReturnsDetachedCopy() {
+        // Arrange
+        cache.put(user);
+        
+        // Act
+        user.setName("Changed by caller");
+        User hit = cache.get("john.doe@example.com").orElseThrow();
+        hit.setName("Changed again");
+        
+        // Assert
+        assertEquals("John Doe", cache.get("john.doe@example.com").orElseThrow().getName());
+        assertNotSame(hit, cache.get("john.doe@example.com").orElseThrow());
+    }
+    
+    @Test
+    void invalidateUser_RemovesEntryWithoutKnowingEmail() {
+        // Arrange
+        cache.put(user);
+        cache.put(User.builder().id(2L).email("jane@example.com").name("Jane").version(1L).build());
+        
+        // Act
+        cache.invalidateUser(1L);
+        
+        // Assert
+        assertTrue(cache.get("john.doe@example.com").isEmpty());
+        assertTrue(cache.get("jane@example.com").isPresent());
+    }
+    
+    @Test
+    void put_EmailChanged_ReplacesEntryUnderOldEmail() {
+        // Arrange
+        cache.put(user);
+        User renamed = user.copy();
+        renamed.setEmail("john.smith@example.com");
+        renamed.setVersion(2L);
+        
+        // Act
+        cache.put(renamed);
+        
+        // Assert
+        assertTrue(cache.get("john.doe@example.com").isEmpty());
+        assertTrue(cache.get("john.smith@example.com").isPresent());
+        cache.invalidateUser(1L);
+        assertTrue(cache.get("john.smith@example.com").isEmpty());
+    }
+    
+    @Test
+    void put_EmailTakenOverByAnotherUser_InvalidateUserLeavesNewOwner() {
+        // Arrange
+        cache.put(user);
+        cache.put(User.builder().id(2L).email("john.doe@example.com").name("Other John").version(1L).build());
+        
+        // Act
+        cache.invalidateUser(1L);
+        
+        // Assert
+        assertEquals(2L, cache.get("john.doe@example.com").orElseThrow().getId());
+    }
+    
+    @Test
+    void recordWrite_OlderVersionNotCached() {
+        // Arrange
+        cache.recordWrite(1L, 2L);
+        
+        // Act
+        cache.put(user);
+        
+        // Assert
+        assertTrue(cache.get("john.doe@example.com").isEmpty());
+    }
+}
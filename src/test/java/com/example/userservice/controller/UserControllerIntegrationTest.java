@@ -10,10 +10,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -107,7 +110,7 @@ class UserControllerIntegrationTest {
     
     @Test
     void getUserByEmailPath_ValidEmail_ReturnsUser() throws Exception {
-        mockMvc.perform(get("/api/v1/users/email/test@example.com")
+        mockMvc.perform(get("/api/v1/users/test@example.com")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -122,4 +125,25 @@ class UserControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("User Service is running"));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void exportUsers_StreamsNdjsonInIdOrder() throws Exception {
+        // Arrange
+        userRepository.save(User.builder().email("second@example.com").name("Second User").build());
+        
+        // Act
+        MvcResult pending = mockMvc.perform(get("/api/v1/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        
+        // Assert
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("test@example.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals("second@example.com", objectMapper.readTree(lines[1]).get("email").asText());
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.UserVersionDTO;
 import com.example.userservice.exception.InvalidEmailException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.model.User;
 import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +15,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +37,9 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
     
+    @MockBean
+    private UserServiceImpl userServiceImpl;
+    
     private User testUser;
     
     @BeforeEach
@@ -44,6 +54,8 @@ class UserControllerTest {
                 .state("Test State")
                 .zipCode("12345")
                 .country("Test Country")
+                .version(4L)
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 12, 0))
                 .build();
     }
     
@@ -75,6 +87,50 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("Test User"));
     }
     
+    @Test
+    void getUserByEmailPath_NoConditionalHeaders_SetsValidatorsWithoutVersionLookup() throws Exception {
+        // Arrange
+        when(userService.getUserByEmail(anyString())).thenReturn(testUser);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users/{email}", "test@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""))
+                .andExpect(header().exists("Last-Modified"));
+        verify(userService, never()).getUserVersion(anyString());
+    }
+    
+    @Test
+    void getUserByEmailPath_MatchingETag_Returns304WithoutLoadingUser() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(anyString()))
+                .thenReturn(Optional.of(new UserVersionDTO(1L, 3L, LocalDateTime.of(2024, 1, 1, 12, 0))));
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users/{email}", "test@example.com")
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(content().string(""));
+        verify(userService, never()).getUserByEmail(anyString());
+    }
+    
+    @Test
+    void getUserByEmailPath_StaleETag_ReturnsUserWithNewETag() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(anyString()))
+                .thenReturn(Optional.of(new UserVersionDTO(1L, 4L, LocalDateTime.of(2024, 1, 1, 12, 0))));
+        when(userService.getUserByEmail(anyString())).thenReturn(testUser);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users/{email}", "test@example.com")
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.email").value("test@example.com"));
+    }
+    
     @Test
     void getUserByEmail_UserNotFound_Returns404() throws Exception {
         // Arrange
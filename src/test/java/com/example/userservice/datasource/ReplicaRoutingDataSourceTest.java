@@ -0,0 +1,153 @@
+package com.example.userservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and its replica; each
+ * holds a marker row naming it, so every read shows where it was routed.
+ */
+class ReplicaRoutingDataSourceTest {
+    
+    private final AtomicLong nanos = new AtomicLong();
+    
+    private DataSource primary;
+    
+    private DataSource replica;
+    
+    private ReplicaRoutingDataSource routingDataSource;
+    
+    private JdbcTemplate jdbcTemplate;
+    
+    private TransactionTemplate readWrite;
+    
+    private TransactionTemplate readOnly;
+    
+    @BeforeEach
+    void setUp() {
+        primary = database("routing_primary");
+        replica = database("routing_replica");
+        
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica),
+                new PrimaryStickiness(Duration.ofSeconds(5), nanos::get));
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        ClientContext.clear();
+    }
+    
+    @Test
+    void readOnlyTransaction_RoutesToReplica() {
+        assertEquals("routing_replica", readNode());
+    }
+    
+    @Test
+    void readWriteTransaction_RoutesToPrimary() {
+        // Act
+        String node = readWrite.execute(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        });
+        
+        // Assert
+        assertEquals("routing_primary", node);
+        assertEquals(0, new JdbcTemplate(replica).queryForObject("SELECT writes FROM node", Integer.class));
+    }
+    
+    @Test
+    void readAfterWrite_SameClient_StaysOnPrimaryForWindow() {
+        // Arrange
+        ClientContext.set("client-a");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+        
+        // Act & Assert
+        assertEquals("routing_primary", readNode());
+        
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals("routing_replica", readNode());
+    }
+    
+    @Test
+    void readAfterWrite_OtherClient_RoutesToReplica() {
+        // Arrange
+        ClientContext.set("client-a");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+        
+        // Act
+        ClientContext.set("client-b");
+        
+        // Assert
+        assertEquals("routing_replica", readNode());
+    }
+    
+    @Test
+    void rolledBackWrite_DoesNotStickClient() {
+        // Arrange
+        ClientContext.set("client-a");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+        
+        // Act & Assert
+        assertEquals("routing_replica", readNode());
+    }
+    
+    @Test
+    void readWriteTransactionWithoutWrites_DoesNotStickClient() {
+        // Arrange
+        ClientContext.set("client-a");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        
+        // Act & Assert
+        assertEquals("routing_replica", readNode());
+    }
+    
+    @Test
+    void routesReadsToReplica_FalseWhileClientIsSticky() {
+        // Arrange
+        ClientContext.set("client-a");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+        
+        // Act & Assert
+        assertFalse(routingDataSource.routesReadsToReplica());
+        ClientContext.set("client-b");
+        assertTrue(routingDataSource.routesReadsToReplica());
+    }
+    
+    private String readNode() {
+        return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+    
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32), writes INT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
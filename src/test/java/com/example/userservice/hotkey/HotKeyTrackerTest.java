@@ -0,0 +1,98 @@
+package com.example.userservice.hotkey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private HotKeyTracker<String> tracker;
+
+    @BeforeEach
+    void setUp() {
+        HotKeyProperties properties = new HotKeyProperties();
+        properties.setWindow(Duration.ofSeconds(60));
+        properties.setSlices(6);
+        properties.setCapacity(10);
+        tracker = new HotKeyTracker<>("email", properties, now::get);
+    }
+
+    @Test
+    void top_HeavyKeysAmongLongTail_ReportedInOrder() {
+        // Arrange: three heavy keys interleaved with 20,000 keys seen once each
+        for (int i = 0; i < 20_000; i++) {
+            tracker.record("tail" + i + "@example.com");
+            if (i % 10 == 0) {
+                tracker.record("hot1@example.com");
+            }
+            if (i % 20 == 0) {
+                tracker.record("hot2@example.com");
+            }
+            if (i % 40 == 0) {
+                tracker.record("hot3@example.com");
+            }
+        }
+
+        // Act
+        List<HotKeyTracker.HotKey<String>> top = tracker.top(3);
+
+        // Assert
+        assertEquals(List.of("hot1@example.com", "hot2@example.com", "hot3@example.com"),
+                top.stream().map(HotKeyTracker.HotKey::getKey).toList());
+        assertTrue(top.get(0).getCount() >= 2_000, "count: " + top.get(0).getCount());
+        assertTrue(top.get(0).getCount() < 2_100, "count: " + top.get(0).getCount());
+    }
+
+    @Test
+    void top_CountsSummedAcrossSlicesInWindow() {
+        // Arrange
+        tracker.record("a@example.com");
+        now.addAndGet(10_000);
+        tracker.record("a@example.com");
+        tracker.record("b@example.com");
+
+        // Act
+        List<HotKeyTracker.HotKey<String>> top = tracker.top(10);
+
+        // Assert
+        assertEquals("a@example.com", top.get(0).getKey());
+        assertEquals(2, top.get(0).getCount());
+        assertEquals(1, top.get(1).getCount());
+    }
+
+    @Test
+    void top_KeysOlderThanWindow_Expire() {
+        // Arrange
+        tracker.record("old@example.com");
+        now.addAndGet(30_000);
+        tracker.record("recent@example.com");
+
+        // Act
+        now.addAndGet(35_000);
+        List<HotKeyTracker.HotKey<String>> top = tracker.top(10);
+
+        // Assert
+        assertEquals(1, top.size());
+        assertEquals("recent@example.com", top.get(0).getKey());
+    }
+
+    @Test
+    void top_IdleLongerThanWindow_ReturnsEmpty() {
+        // Arrange
+        tracker.record("a@example.com");
+
+        // Act
+        now.addAndGet(Duration.ofHours(1).toMillis());
+
+        // Assert
+        assertTrue(tracker.top(10).isEmpty());
+        assertEquals(Duration.ofSeconds(60), tracker.getWindow());
+    }
+}
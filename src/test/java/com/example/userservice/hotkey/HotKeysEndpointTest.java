@@ -0,0 +1,57 @@
+package com.example.userservice.hotkey;
+
+import com.example.userservice.dto.HotKeysDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeysEndpointTest {
+
+    private HotKeyTracker<String> emailHotKeys;
+
+    private HotKeyTracker<Long> idHotKeys;
+
+    private HotKeysEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        emailHotKeys = new HotKeyTracker<>("email", new HotKeyProperties());
+        idHotKeys = new HotKeyTracker<>("id", new HotKeyProperties());
+        endpoint = new HotKeysEndpoint(emailHotKeys, idHotKeys);
+    }
+
+    @Test
+    void hotKeys_ReportsMaskedEmailsAndIds() {
+        // Arrange
+        emailHotKeys.record("john.doe@example.com");
+        emailHotKeys.record("john.doe@example.com");
+        idHotKeys.record(42L);
+
+        // Act
+        HotKeysDTO hotKeys = endpoint.hotKeys(null);
+
+        // Assert
+        String key = hotKeys.getEmails().get(0).getKey();
+        assertTrue(key.matches("j\\*\\*\\*@example\\.com#[0-9a-f]{8}"), key);
+        assertFalse(key.contains("john.doe"));
+        assertEquals(2, hotKeys.getEmails().get(0).getCount());
+        assertEquals(42L, hotKeys.getIds().get(0).getKey());
+        assertEquals(60, hotKeys.getWindowSeconds());
+    }
+
+    @Test
+    void mask_SameEmailSameFingerprint_DifferentEmailsDiffer() {
+        // Act & Assert
+        assertEquals(HotKeysEndpoint.mask("jane@example.com"), HotKeysEndpoint.mask("jane@example.com"));
+        assertNotEquals(HotKeysEndpoint.mask("jane@example.com"), HotKeysEndpoint.mask("jack@example.com"));
+    }
+
+    @Test
+    void hotKeys_LimitOutOfRange_Rejected() {
+        // Act & Assert
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.hotKeys(0));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.hotKeys(HotKeysEndpoint.MAX_LIMIT + 1));
+    }
+}
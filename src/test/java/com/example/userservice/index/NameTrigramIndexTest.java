@@ -0,0 +1,62 @@
+package com.example.userservice.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTrigramIndexTest {
+
+    private NameTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameTrigramIndex();
+        index.put(1L, "John Doe");
+        index.put(2L, "Jane Doe");
+        index.put(3L, "Johnny Walker");
+        index.markReady();
+    }
+
+    @Test
+    void search_Substring_ReturnsMatchingIdsIgnoringCase() {
+        assertEquals(Optional.of(List.of(1L, 3L)), index.search("JOHN"));
+        assertEquals(Optional.of(List.of(1L, 2L)), index.search(" doe "));
+    }
+
+    @Test
+    void search_SharedGramsButNoSubstring_ReturnsEmptyList() {
+        // "ohn" and "doe" are both indexed for user 1, but not contiguously
+        assertEquals(Optional.of(List.of()), index.search("ohn doe x"));
+        assertEquals(Optional.of(List.of()), index.search("xyz"));
+    }
+
+    @Test
+    void search_ShortQueryOrNotReady_ReturnsEmptyOptional() {
+        assertTrue(index.search("jo").isEmpty());
+        assertTrue(new NameTrigramIndex().search("john").isEmpty());
+    }
+
+    @Test
+    void put_Rename_ReplacesOldGrams() {
+        // Act
+        index.put(1L, "Bob Smith");
+
+        // Assert
+        assertEquals(Optional.of(List.of(3L)), index.search("john"));
+        assertEquals(Optional.of(List.of(1L)), index.search("smith"));
+    }
+
+    @Test
+    void remove_DropsUserFromResults() {
+        // Act
+        index.remove(3L);
+
+        // Assert
+        assertEquals(Optional.of(List.of(1L)), index.search("john"));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.userservice.model;
+
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.cache.UserEmailCache;
+import com.example.userservice.index.NameTrigramIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEntityListenerTest {
+    
+    private NameTrigramIndex nameTrigramIndex;
+    
+    private UserEmailCache emailCache;
+    
+    private UserEntityListener listener;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        nameTrigramIndex = new NameTrigramIndex();
+        nameTrigramIndex.put(1L, "John Doe");
+        nameTrigramIndex.markReady();
+        emailCache = new UserEmailCache(100, Duration.ofMinutes(1));
+        listener = new UserEntityListener(emailCache,
+                new EmailBloomFilter(1000, 0.01), nameTrigramIndex);
+        user = User.builder().id(1L).email("john.doe@example.com").name("John Doe").version(1L).build();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void onRemove_NoTransaction_RemovesImmediately() {
+        // Act
+        listener.onRemove(user);
+        
+        // Assert
+        assertEquals(List.of(), nameTrigramIndex.search("john").orElseThrow());
+    }
+    
+    @Test
+    void onRemove_RolledBack_KeepsUserSearchable() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // Act
+        listener.onRemove(user);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        // Assert
+        assertEquals(List.of(1L), nameTrigramIndex.search("john").orElseThrow());
+    }
+    
+    @Test
+    void onSave_Rename_AppliedOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        user.setName("Jack Smith");
+        
+        // Act
+        listener.onSave(user);
+        List<Long> beforeCommit = nameTrigramIndex.search("smith").orElseThrow();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        
+        // Assert
+        assertEquals(List.of(), beforeCommit);
+        assertEquals(List.of(1L), nameTrigramIndex.search("smith").orElseThrow());
+        assertEquals(List.of(), nameTrigramIndex.search("john").orElseThrow());
+    }
+    
+    @Test
+    void onSave_AfterCommit_StaleRowNotCachedAgain() {
+        // Arrange: a replica still returns version 1 after version 2 commits
+        User stale = User.builder().id(1L).email("john.doe@example.com").name("John Doe").version(1L).build();
+        TransactionSynchronizationManager.initSynchronization();
+        user.setVersion(2L);
+        
+        // Act
+        listener.onSave(user);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        emailCache.put(stale);
+        
+        // Assert
+        assertTrue(emailCache.get("john.doe@example.com").isEmpty());
+        emailCache.put(user);
+        assertEquals(2L, emailCache.get("john.doe@example.com").orElseThrow().getVersion());
+    }
+    
+    @Test
+    void onRemove_AfterCommit_DeletedUserNotCachedAgain() {
+        // Act
+        listener.onRemove(user);
+        emailCache.put(user);
+        
+        // Assert
+        assertTrue(emailCache.get("john.doe@example.com").isEmpty());
+    }
+    
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
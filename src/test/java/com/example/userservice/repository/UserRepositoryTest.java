@@ -0,0 +1,90 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each lookup runs in its own transaction, so only the second-level cache can serve a repeat
+@SpringBootTest
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        // The startup warm-up has already run these queries
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_SecondLoad_ServedFromSecondLevelCache() {
+        // Arrange
+        Long id = userRepository.findByEmailIgnoreCase("john.doe@example.com").orElseThrow().getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        // Act
+        transaction.executeWithoutResult(status -> userRepository.findById(id).orElseThrow());
+        transaction.executeWithoutResult(status -> userRepository.findById(id).orElseThrow());
+
+        // Assert
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findByEmailNormalized_RepeatQuery_ServedFromQueryCache() {
+        // Act
+        transaction.executeWithoutResult(status ->
+                userRepository.findByEmailNormalized("jane.smith@example.com").orElseThrow());
+        transaction.executeWithoutResult(status ->
+                userRepository.findByEmailNormalized("jane.smith@example.com").orElseThrow());
+
+        // Assert
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void findByEmailNormalized_AfterWriteToUsers_QueriesAgain() {
+        // Arrange
+        transaction.executeWithoutResult(status ->
+                userRepository.findByEmailNormalized("bob.johnson@example.com").orElseThrow());
+
+        // Act
+        transaction.executeWithoutResult(status -> {
+            User user = userRepository.findByEmailNormalized("alice.williams@example.com").orElseThrow();
+            user.setPhone("+1-555-0199");
+        });
+        transaction.executeWithoutResult(status ->
+                userRepository.findByEmailNormalized("bob.johnson@example.com").orElseThrow());
+
+        // Assert: the update to users invalidated the cached result
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+}
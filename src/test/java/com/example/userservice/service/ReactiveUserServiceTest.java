@@ -0,0 +1,165 @@
+package com.example.userservice.service;
+
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.exception.InvalidEmailException;
+import com.example.userservice.exception.InvalidInputException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.index.NameTrigramIndex;
+import com.example.userservice.repository.ReactiveUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+    
+    @Mock
+    private ReactiveUserRepository reactiveUserRepository;
+    
+    private ReactiveUserService reactiveUserService;
+    
+    private EmailBloomFilter emailBloomFilter;
+    
+    private NameTrigramIndex nameTrigramIndex;
+    
+    private UserResponseDTO testUser;
+    
+    @BeforeEach
+    void setUp() {
+        emailBloomFilter = new EmailBloomFilter(1000, 0.01);
+        nameTrigramIndex = new NameTrigramIndex();
+        reactiveUserService = new ReactiveUserService(reactiveUserRepository, emailBloomFilter, nameTrigramIndex);
+        
+        testUser = UserResponseDTO.builder()
+                .id(1L)
+                .name("Test User")
+                .email("test@example.com")
+                .build();
+    }
+    
+    @Test
+    void getUserByEmail_ValidEmail_EmitsUser() {
+        // Arrange
+        when(reactiveUserRepository.findByEmailNormalized("test@example.com")).thenReturn(Mono.just(testUser));
+        
+        // Act
+        UserResponseDTO result = reactiveUserService.getUserByEmail("Test@Example.com").block();
+        
+        // Assert
+        assertEquals(testUser, result);
+    }
+    
+    @Test
+    void getUserByEmail_InvalidEmail_EmitsInvalidEmailException() {
+        // Act & Assert
+        assertThrows(InvalidEmailException.class,
+                () -> reactiveUserService.getUserByEmail("invalid-email").block());
+        verifyNoInteractions(reactiveUserRepository);
+    }
+    
+    @Test
+    void getUserByEmail_UserNotFound_EmitsUserNotFoundException() {
+        // Arrange
+        when(reactiveUserRepository.findByEmailNormalized(anyString())).thenReturn(Mono.empty());
+        
+        // Act & Assert
+        assertThrows(UserNotFoundException.class,
+                () -> reactiveUserService.getUserByEmail("missing@example.com").block());
+    }
+    
+    @Test
+    void getUserByEmail_RejectedByBloomFilter_SkipsDatabase() {
+        // Arrange
+        emailBloomFilter.put("test@example.com");
+        emailBloomFilter.markReady();
+        
+        // Act & Assert
+        assertThrows(UserNotFoundException.class,
+                () -> reactiveUserService.getUserByEmail("missing@example.com").block());
+        verifyNoInteractions(reactiveUserRepository);
+    }
+    
+    @Test
+    void findUsersByName_IndexReady_QueriesByIds() {
+        // Arrange
+        nameTrigramIndex.put(1L, "Test User");
+        nameTrigramIndex.put(2L, "Someone Else");
+        nameTrigramIndex.markReady();
+        when(reactiveUserRepository.findAllById(List.of(1L))).thenReturn(Flux.just(testUser));
+        
+        // Act
+        List<UserResponseDTO> result = reactiveUserService.findUsersByName(" test ").collectList().block();
+        
+        // Assert
+        assertEquals(List.of(testUser), result);
+        verify(reactiveUserRepository, never()).findByNameContainingIgnoreCase(anyString());
+    }
+    
+    @Test
+    void findUsersByName_ManyCandidates_QueriesByIdsInChunks() {
+        // Arrange: 1200 matches, fetched as 500 + 500 + 200
+        for (long id = 1; id <= 1200; id++) {
+            nameTrigramIndex.put(id, "Test User " + id);
+        }
+        nameTrigramIndex.markReady();
+        when(reactiveUserRepository.findAllById(any())).thenReturn(Flux.just(testUser));
+        
+        // Act
+        List<UserResponseDTO> result = reactiveUserService.findUsersByName("test").collectList().block();
+        
+        // Assert
+        assertEquals(3, result.size());
+        verify(reactiveUserRepository, times(2)).findAllById(argThat(ids -> ids.size() == 500));
+        verify(reactiveUserRepository).findAllById(argThat(ids -> ids.size() == 200));
+    }
+    
+    @Test
+    void findUsersByName_TooManyCandidates_FallsBackToLike() {
+        // Arrange
+        for (long id = 1; id <= UserServiceImpl.MAX_INDEX_CANDIDATES + 1; id++) {
+            nameTrigramIndex.put(id, "Test User " + id);
+        }
+        nameTrigramIndex.markReady();
+        when(reactiveUserRepository.findByNameContainingIgnoreCase("test")).thenReturn(Flux.just(testUser));
+        
+        // Act
+        List<UserResponseDTO> result = reactiveUserService.findUsersByName("test").collectList().block();
+        
+        // Assert
+        assertEquals(List.of(testUser), result);
+        verify(reactiveUserRepository, never()).findAllById(any());
+    }
+    
+    @Test
+    void findUsersByName_IndexNotReady_FallsBackToLike() {
+        // Arrange
+        when(reactiveUserRepository.findByNameContainingIgnoreCase("Test")).thenReturn(Flux.just(testUser));
+        
+        // Act
+        List<UserResponseDTO> result = reactiveUserService.findUsersByName("Test").collectList().block();
+        
+        // Assert
+        assertEquals(List.of(testUser), result);
+        verify(reactiveUserRepository, never()).findAllById(any());
+    }
+    
+    @Test
+    void findUsersByName_BlankName_EmitsInvalidInputException() {
+        // Act & Assert
+        assertThrows(InvalidInputException.class,
+                () -> reactiveUserService.findUsersByName("  ").collectList().block());
+    }
+}
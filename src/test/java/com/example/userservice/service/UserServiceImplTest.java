@@ -1,20 +1,42 @@
 package com.example.userservice.service;
 
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.dto.CursorPageDTO;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.exception.InvalidInputException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.hotkey.HotKeyProperties;
+import com.example.userservice.hotkey.HotKeyTracker;
+import com.example.userservice.index.NameTrigramIndex;
 import com.example.userservice.model.User;
 import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +52,21 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private NameTrigramIndex nameTrigramIndex = new NameTrigramIndex();
+
+    @Spy
+    private SingleFlight<Long, Optional<UserResponseDTO>> idLookupFlight = new SingleFlight<>("id", Duration.ofSeconds(5));
+
+    @Spy
+    private HotKeyTracker<Long> idHotKeys = new HotKeyTracker<>("id", new HotKeyProperties());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -50,117 +87,226 @@ class UserServiceImplTest {
     }
 
     @Test
-    void findUserByName_ReturnsUser_WhenUserExists() {
+    void findUsersByName_ReturnsUsers_WhenIndexNotReady() {
+        // Arrange
+        when(userRepository.findResponsesByNameContaining("John Doe")).thenReturn(List.of(
+                new UserResponseDTO(1L, "John Doe", "john.doe@example.com", null, null, null)));
+
+        // Act
+        List<UserResponseDTO> result = userService.findUsersByName(" John Doe ");
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("John Doe", result.get(0).getName());
+        assertEquals("john.doe@example.com", result.get(0).getEmail());
+        verify(userRepository, times(1)).findResponsesByNameContaining("John Doe");
+    }
+
+    @Test
+    void findUsersByName_ReturnsEmpty_WhenIndexHasNoMatch() {
         // Arrange
-        when(userRepository.findByName("John Doe")).thenReturn(Optional.of(testUser1));
+        nameTrigramIndex.put(1L, "John Doe");
+        nameTrigramIndex.markReady();
 
         // Act
-        Optional<User> result = userService.findUserByName("John Doe");
+        List<UserResponseDTO> result = userService.findUsersByName("Nonexistent User");
 
         // Assert
-        assertTrue(result.isPresent());
-        assertEquals("John Doe", result.get().getName());
-        assertEquals("john.doe@example.com", result.get().getEmail());
-        verify(userRepository, times(1)).findByName("John Doe");
+        assertTrue(result.isEmpty());
+        verify(userRepository, never()).findResponsesByNameContaining(anyString());
+    }
+
+    @Test
+    void findUsersByName_RejectsNullName() {
+        // Act & Assert
+        assertThrows(InvalidInputException.class, () -> userService.findUsersByName(null));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void findUserByName_ReturnsEmpty_WhenUserDoesNotExist() {
+    void findUsersByName_ManyIndexMatches_FetchedInChunks() {
         // Arrange
-        when(userRepository.findByName("Nonexistent User")).thenReturn(Optional.empty());
+        for (long id = 1; id <= 1200; id++) {
+            nameTrigramIndex.put(id, "Ann " + id);
+        }
+        nameTrigramIndex.markReady();
+        when(userRepository.findResponsesByIdIn(anyCollection())).thenReturn(List.of());
 
         // Act
-        Optional<User> result = userService.findUserByName("Nonexistent User");
+        userService.findUsersByName("Ann");
 
         // Assert
-        assertFalse(result.isPresent());
-        verify(userRepository, times(1)).findByName("Nonexistent User");
+        verify(userRepository, times(3)).findResponsesByIdIn(anyCollection());
+        verify(userRepository, never()).findResponsesByNameContaining(anyString());
     }
 
     @Test
-    void findUserByName_HandlesNullName() {
+    void findUsersByName_TooManyIndexMatches_FallsBackToLike() {
         // Arrange
-        when(userRepository.findByName(null)).thenReturn(Optional.empty());
+        for (long id = 1; id <= UserServiceImpl.MAX_INDEX_CANDIDATES + 1; id++) {
+            nameTrigramIndex.put(id, "Ann " + id);
+        }
+        nameTrigramIndex.markReady();
+        when(userRepository.findResponsesByNameContaining("Ann")).thenReturn(List.of());
 
         // Act
-        Optional<User> result = userService.findUserByName(null);
+        userService.findUsersByName("Ann");
 
         // Assert
-        assertFalse(result.isPresent());
-        verify(userRepository, times(1)).findByName(null);
+        verify(userRepository, times(1)).findResponsesByNameContaining("Ann");
+        verify(userRepository, never()).findResponsesByIdIn(anyCollection());
     }
 
     @Test
     void getAllUsers_ReturnsListOfUsers_WhenUsersExist() {
         // Arrange
-        List<User> users = Arrays.asList(testUser1, testUser2);
-        when(userRepository.findAll()).thenReturn(users);
+        List<UserResponseDTO> users = Arrays.asList(
+                new UserResponseDTO(1L, "John Doe", "john.doe@example.com", null, null, null),
+                new UserResponseDTO(2L, "Jane Smith", "jane.smith@example.com", null, null, null));
+        when(userRepository.findAllResponses()).thenReturn(users);
 
         // Act
-        List<User> result = userService.getAllUsers();
+        List<UserResponseDTO> result = userService.getAllUsers();
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals("John Doe", result.get(0).getName());
         assertEquals("Jane Smith", result.get(1).getName());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllResponses();
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void getAllUsers_RecordsResultSize() {
+        // Arrange
+        when(userRepository.findAllResponses()).thenReturn(Arrays.asList(
+                new UserResponseDTO(1L, "John Doe", "john.doe@example.com", null, null, null),
+                new UserResponseDTO(2L, "Jane Smith", "jane.smith@example.com", null, null, null)));
+
+        // Act
+        userService.getAllUsers();
+
+        // Assert
+        DistributionSummary summary = meterRegistry.get(UserServiceImpl.RESULT_SIZE_SUMMARY)
+                .tag("method", "getAllUsers")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
     }
 
     @Test
     void getAllUsers_ReturnsEmptyList_WhenNoUsersExist() {
         // Arrange
-        when(userRepository.findAll()).thenReturn(Arrays.asList());
+        when(userRepository.findAllResponses()).thenReturn(Arrays.asList());
 
         // Act
-        List<User> result = userService.getAllUsers();
+        List<UserResponseDTO> result = userService.getAllUsers();
 
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllResponses();
     }
 
     @Test
-    void createUser_SavesAndReturnsUser() {
+    void getUserById_ReturnsUser_WhenUserExists() {
         // Arrange
-        when(userRepository.save(any(User.class))).thenReturn(testUser1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser1));
 
         // Act
-        User result = userService.createUser(testUser1);
+        UserResponseDTO result = userService.getUserById(1L);
 
         // Assert
-        assertNotNull(result);
+        assertEquals(1L, result.getId());
         assertEquals("John Doe", result.getName());
         assertEquals("john.doe@example.com", result.getEmail());
-        verify(userRepository, times(1)).save(testUser1);
+        verify(userRepository, times(1)).findById(1L);
     }
 
     @Test
-    void findUserById_ReturnsUser_WhenUserExists() {
+    void getUserById_ThrowsNotFound_WhenUserDoesNotExist() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser1));
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(999L));
+        verify(userRepository, times(1)).findById(999L);
+    }
+
+    @Test
+    void getUserById_RejectsNonPositiveId() {
+        // Act & Assert
+        assertThrows(InvalidInputException.class, () -> userService.getUserById(0L));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void exportUsers_WritesOneJsonLinePerUserAndClosesCursor() throws IOException {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAllResponses()).thenReturn(Stream.of(
+                        new UserResponseDTO(1L, "John Doe", "john.doe@example.com", null, null, null),
+                        new UserResponseDTO(2L, "Jane Smith", "jane.smith@example.com", null, null, null))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         // Act
-        Optional<User> result = userService.findUserById(1L);
+        long count = userService.exportUsers(out);
 
         // Assert
-        assertTrue(result.isPresent());
-        assertEquals(1L, result.get().getId());
-        assertEquals("John Doe", result.get().getName());
-        verify(userRepository, times(1)).findById(1L);
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("john.doe@example.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+        assertTrue(closed.get());
     }
 
     @Test
-    void findUserById_ReturnsEmpty_WhenUserDoesNotExist() {
+    void exportUsers_NoUsers_WritesNothing() throws IOException {
         // Arrange
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.streamAllResponses()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act & Assert
+        assertEquals(0, userService.exportUsers(out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void getAllUsersPage_ExactlyPageSizeLeft_NoNextCursor() {
+        // Arrange: the extra row asked for is not there
+        when(userRepository.findResponsesAfterId(eq(0L), any())).thenReturn(List.of(
+                new UserResponseDTO(1L, "John Doe", "john.doe@example.com", null, null, null),
+                new UserResponseDTO(2L, "Jane Smith", "jane.smith@example.com", null, null, null)));
 
         // Act
-        Optional<User> result = userService.findUserById(999L);
+        CursorPageDTO<UserResponseDTO> page = userService.getAllUsers(null, 2);
 
         // Assert
-        assertFalse(result.isPresent());
-        verify(userRepository, times(1)).findById(999L);
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAllUsersPage_MoreRows_CursorResumesAfterLastItem() {
+        // Arrange
+        when(userRepository.findResponsesAfterId(eq(0L), any())).thenReturn(List.of(
+                new UserResponseDTO(1L, "John Doe", "john.doe@example.com", null, null, null),
+                new UserResponseDTO(5L, "Jane Smith", "jane.smith@example.com", null, null, null),
+                new UserResponseDTO(9L, "Ann Lee", "ann.lee@example.com", null, null, null)));
+        when(userRepository.findResponsesAfterId(eq(5L), any())).thenReturn(List.of(
+                new UserResponseDTO(9L, "Ann Lee", "ann.lee@example.com", null, null, null)));
+
+        // Act
+        CursorPageDTO<UserResponseDTO> first = userService.getAllUsers(null, 2);
+        CursorPageDTO<UserResponseDTO> second = userService.getAllUsers(first.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(List.of(1L, 5L), first.getItems().stream().map(UserResponseDTO::getId).toList());
+        assertEquals(CursorPageDTO.encodeCursor(5L), first.getNextCursor());
+        assertEquals(List.of(9L), second.getItems().stream().map(UserResponseDTO::getId).toList());
+        assertNull(second.getNextCursor());
     }
 }
@@ -1,19 +1,27 @@
 package com.example.userservice.service;
 
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.cache.UserEmailCache;
+import com.example.userservice.dto.UserLookupResponseDTO;
 import com.example.userservice.exception.InvalidEmailException;
 import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.hotkey.HotKeyProperties;
+import com.example.userservice.hotkey.HotKeyTracker;
 import com.example.userservice.model.User;
 import com.example.userservice.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -23,13 +31,21 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     
-    @InjectMocks
     private UserService userService;
     
+    private EmailBloomFilter emailBloomFilter;
+    
+    private HotKeyTracker<String> emailHotKeys;
+    
     private User testUser;
     
     @BeforeEach
     void setUp() {
+        emailBloomFilter = new EmailBloomFilter(1000, 0.01);
+        emailHotKeys = new HotKeyTracker<>("email", new HotKeyProperties());
+        userService = new UserService(userRepository, new UserEmailCache(100, Duration.ofMinutes(1)),
+                emailBloomFilter, new SingleFlight<>("email", Duration.ofSeconds(5)), emailHotKeys);
+        
         testUser = User.builder()
                 .id(1L)
                 .email("test@example.com")
@@ -74,6 +90,38 @@ class UserServiceTest {
         verify(userRepository, times(1)).findByEmailIgnoreCase(anyString());
     }
     
+    @Test
+    void getUserByEmail_RepeatLookup_ServedFromCache() {
+        // Arrange
+        when(userRepository.findByEmailIgnoreCase(anyString()))
+                .thenReturn(Optional.of(testUser));
+        
+        // Act
+        userService.getUserByEmail("test@example.com");
+        User result = userService.getUserByEmail("Test@Example.com");
+        
+        // Assert
+        assertEquals(testUser.getEmail(), result.getEmail());
+        verify(userRepository, times(1)).findByEmailIgnoreCase(anyString());
+    }
+    
+    @Test
+    void getUserByEmail_CacheMissAndHit_BothCountedAsHotKeys() {
+        // Arrange
+        when(userRepository.findByEmailIgnoreCase(anyString()))
+                .thenReturn(Optional.of(testUser));
+    
+        // Act
+        userService.getUserByEmail("test@example.com");
+        userService.getUserByEmail("Test@Example.com");
+    
+        // Assert
+        List<HotKeyTracker.HotKey<String>> hotKeys = emailHotKeys.top(10);
+        assertEquals(1, hotKeys.size());
+        assertEquals("test@example.com", hotKeys.get(0).getKey());
+        assertEquals(2, hotKeys.get(0).getCount());
+    }
+    
     @Test
     void getUserByEmail_UserNotFound_ThrowsException() {
         // Arrange
@@ -86,6 +134,18 @@ class UserServiceTest {
         verify(userRepository, times(1)).findByEmailIgnoreCase(anyString());
     }
     
+    @Test
+    void getUserByEmail_BloomFilterRejects_SkipsRepository() {
+        // Arrange
+        emailBloomFilter.put("test@example.com");
+        emailBloomFilter.markReady();
+        
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, 
+                () -> userService.getUserByEmail("notfound@example.com"));
+        verify(userRepository, never()).findByEmailIgnoreCase(anyString());
+    }
+    
     @Test
     void getUserByEmail_InvalidEmailFormat_ThrowsException() {
         // Act & Assert
@@ -109,4 +169,21 @@ class UserServiceTest {
                 () -> userService.getUserByEmail(""));
         verify(userRepository, never()).findByEmailIgnoreCase(anyString());
     }
+    
+    @Test
+    void getUsersByEmails_MixedInput_ReturnsMatchesAndMisses() {
+        // Arrange
+        when(userRepository.findByEmailNormalizedIn(anyCollection()))
+                .thenReturn(List.of(testUser));
+        
+        // Act
+        UserLookupResponseDTO result = userService.getUsersByEmails(
+                List.of("TEST@example.com", "test@example.com", "missing@example.com", "invalid-email"));
+        
+        // Assert
+        assertEquals(1, result.getUsers().size());
+        assertEquals(testUser.getEmail(), result.getUsers().get(0).getEmail());
+        assertEquals(List.of("invalid-email", "missing@example.com"), result.getMisses());
+        verify(userRepository, times(1)).findByEmailNormalizedIn(List.of("test@example.com", "missing@example.com"));
+    }
 }
\ No newline at end of file
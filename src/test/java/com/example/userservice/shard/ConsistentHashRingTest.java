@@ -0,0 +1,99 @@
+package com.example.userservice.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+    
+    private static final int KEYS = 100_000;
+    
+    @Test
+    void nodeFor_SpreadsKeysEvenly() {
+        // Arrange
+        ConsistentHashRing<String> ring = ring(4);
+        Map<String, Integer> counts = new HashMap<>();
+        
+        // Act
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor(key(i)), 1, Integer::sum);
+        }
+        
+        // Assert
+        assertEquals(4, counts.size());
+        counts.values().forEach(count ->
+                assertEquals(KEYS / 4.0, count, KEYS * 0.05, "Unbalanced shard: " + counts));
+    }
+    
+    @Test
+    void add_MovesAboutOneNthOfKeys_OnlyToNewNode() {
+        // Arrange
+        ConsistentHashRing<String> ring = ring(4);
+        String[] before = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            before[i] = ring.nodeFor(key(i));
+        }
+        
+        // Act
+        ring.add("shard-4", "shard-4");
+        
+        // Assert
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String after = ring.nodeFor(key(i));
+            if (!after.equals(before[i])) {
+                assertEquals("shard-4", after);
+                moved++;
+            }
+        }
+        assertEquals(KEYS / 5.0, moved, KEYS * 0.05);
+    }
+    
+    @Test
+    void copy_AddingToCopy_LeavesOriginalUnchanged() {
+        // Arrange
+        ConsistentHashRing<String> ring = ring(4);
+        String[] before = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            before[i] = ring.nodeFor(key(i));
+        }
+        
+        // Act
+        ConsistentHashRing<String> copy = ring.copy();
+        copy.add("shard-4", "shard-4");
+        
+        // Assert
+        assertEquals(4, ring.size());
+        assertEquals(5, copy.size());
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(before[i], ring.nodeFor(key(i)));
+        }
+    }
+    
+    @Test
+    void add_DuplicateName_Throws() {
+        ConsistentHashRing<String> ring = ring(1);
+        
+        assertThrows(IllegalArgumentException.class, () -> ring.add("shard-0", "other"));
+    }
+    
+    @Test
+    void nodeFor_EmptyRing_Throws() {
+        assertThrows(IllegalStateException.class, () -> new ConsistentHashRing<String>(10).nodeFor("a@example.com"));
+    }
+    
+    private static ConsistentHashRing<String> ring(int nodes) {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(160);
+        for (int i = 0; i < nodes; i++) {
+            ring.add("shard-" + i, "shard-" + i);
+        }
+        return ring;
+    }
+    
+    private static String key(int i) {
+        return "user" + i + "@example.com";
+    }
+}
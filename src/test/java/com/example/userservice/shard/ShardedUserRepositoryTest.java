@@ -0,0 +1,133 @@
+package com.example.userservice.shard;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.model.User;
+import com.example.userservice.model.UserEntityListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedUserRepositoryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Mock
+    private ShardedUserStore store;
+
+    @Mock
+    private UserEntityListener listener;
+
+    private ShardedUserRepository repository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ShardedUserRepository(store, listener);
+        user = User.builder().id(7L).email("test@example.com").emailNormalized("test@example.com")
+                .name("Test User").createdAt(CREATED_AT).updatedAt(CREATED_AT.plusDays(1)).build();
+    }
+
+    @Test
+    void findByEmailIgnoreCase_RoutesThroughDefaultMethodToOwningShard() {
+        // Arrange
+        when(store.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        // Act
+        Optional<User> result = repository.findByEmailIgnoreCase(" Test@Example.com ");
+
+        // Assert
+        assertEquals(Optional.of(user), result);
+    }
+
+    @Test
+    void findResponsesAfterId_UsesPageSizeAsLimit() {
+        // Arrange
+        when(store.findAfterId(10L, 0, 25)).thenReturn(List.of(user));
+
+        // Act
+        List<UserResponseDTO> page = repository.findResponsesAfterId(10L, PageRequest.ofSize(25));
+
+        // Assert
+        assertEquals(1, page.size());
+        assertEquals("Test User", page.get(0).getName());
+        assertEquals(CREATED_AT, page.get(0).getCreatedAt());
+        assertEquals(CREATED_AT.plusDays(1), page.get(0).getUpdatedAt());
+    }
+
+    @Test
+    void save_NotifiesEntityListener() {
+        // Arrange
+        when(store.save(user)).thenReturn(user);
+
+        // Act
+        repository.save(user);
+
+        // Assert
+        verify(listener).onSave(user);
+    }
+
+    @Test
+    void delete_NotifiesEntityListenerOnlyWhenDeleted() {
+        // Arrange
+        when(store.deleteById(7L)).thenReturn(true, false);
+
+        // Act
+        repository.delete(user);
+        repository.delete(user);
+
+        // Assert
+        verify(listener, times(1)).onRemove(user);
+    }
+
+    @Test
+    void findRecentlyUpdated_PassesOffsetOfLaterPages() {
+        // Arrange
+        when(store.findRecentlyUpdated(50, 25)).thenReturn(List.of(user));
+
+        // Act
+        List<User> page = repository.findRecentlyUpdated(PageRequest.of(2, 25));
+
+        // Assert
+        assertEquals(List.of(user), page);
+    }
+
+    @Test
+    void streamAllResponses_StreamsFromShardCursors() {
+        // Arrange
+        when(store.streamAll()).thenReturn(Stream.of(user));
+
+        // Act
+        List<UserResponseDTO> responses;
+        try (Stream<UserResponseDTO> stream = repository.streamAllResponses()) {
+            responses = stream.toList();
+        }
+
+        // Assert
+        assertEquals(1, responses.size());
+        assertEquals("test@example.com", responses.get(0).getEmail());
+        verify(store, never()).findAll();
+    }
+
+    @Test
+    void count_SumsShardCounts() {
+        // Arrange
+        when(store.count()).thenReturn(42L);
+
+        // Act & Assert
+        assertEquals(42L, repository.count());
+        verify(store, never()).findAll();
+    }
+}
@@ -0,0 +1,385 @@
+package com.example.userservice.shard;
+
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserKeyView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the store against three in-memory H2 databases, adding a fourth to
+ * test rebalancing.
+ */
+class ShardedUserStoreTest {
+    
+    private static final int USERS = 300;
+    
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+    
+    private ExecutorService executor;
+    
+    private ShardedUserStore store;
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            shards.put("shard-" + i, shard("shard_" + i));
+        }
+        new JdbcTemplate(shards.get("shard-0")).execute("CREATE SEQUENCE users_id_seq");
+        executor = Executors.newFixedThreadPool(3);
+        store = newStore();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        shards.values().forEach(dataSource -> new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS"));
+    }
+    
+    @Test
+    void save_SpreadsUsersAcrossShards_EachStoredOnce() {
+        // Act
+        saveUsers();
+        
+        // Assert
+        int total = 0;
+        for (DataSource dataSource : shards.values()) {
+            int count = count(dataSource);
+            assertTrue(count > 0, "Every shard should hold some users");
+            total += count;
+        }
+        assertEquals(USERS, total);
+    }
+    
+    @Test
+    void findByEmail_IgnoresCase_ReturnsUser() {
+        // Arrange
+        saveUsers();
+        
+        // Act
+        User user = store.findByEmail("USER42@Example.com").orElseThrow();
+        
+        // Assert
+        assertEquals("user42@example.com", user.getEmail());
+        assertEquals("User 42", user.getName());
+    }
+    
+    @Test
+    void save_ExistingEmail_UpdatesInPlace() {
+        // Arrange
+        User saved = store.save(user(1));
+        
+        // Act
+        User updated = store.save(User.builder().email("USER1@example.com").name("Renamed").build());
+        
+        // Assert
+        assertEquals(saved.getId(), updated.getId());
+        assertEquals("Renamed", store.findByEmail("user1@example.com").orElseThrow().getName());
+        assertEquals(1, store.findAll().size());
+    }
+    
+    @Test
+    void findAll_MergesShardsInIdOrder() {
+        // Arrange
+        saveUsers();
+        
+        // Act
+        List<User> users = store.findAll();
+        
+        // Assert
+        assertEquals(USERS, users.size());
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getId() < users.get(i).getId());
+        }
+    }
+    
+    @Test
+    void findByNameContaining_SearchesAllShards() {
+        // Arrange
+        saveUsers();
+        
+        // Act
+        List<User> users = store.findByNameContaining("user 1");
+        
+        // Assert: "User 1", "User 10".."User 19", "User 100".."User 199"
+        assertEquals(111, users.size());
+    }
+    
+    @Test
+    void deleteByEmail_RemovesUser() {
+        // Arrange
+        saveUsers();
+        
+        // Act & Assert
+        assertTrue(store.deleteByEmail("user7@example.com"));
+        assertTrue(store.findByEmail("user7@example.com").isEmpty());
+        assertFalse(store.deleteByEmail("user7@example.com"));
+    }
+    
+    @Test
+    void addShard_MovesOnlyKeysOwnedByNewShard() {
+        // Arrange
+        saveUsers();
+        Map<String, Integer> before = new LinkedHashMap<>();
+        shards.forEach((name, dataSource) -> before.put(name, count(dataSource)));
+        DataSource added = shard("shard_3");
+        
+        // Act
+        long moved = store.addShard("shard-3", added);
+        
+        // Assert
+        assertEquals(moved, count(added));
+        assertTrue(moved > USERS / 8 && moved < USERS / 2, "Expected about a quarter of users to move: " + moved);
+        int remaining = 0;
+        for (DataSource dataSource : shards.values()) {
+            remaining += count(dataSource);
+        }
+        assertEquals(USERS, remaining + moved);
+        for (int i = 0; i < USERS; i++) {
+            assertTrue(store.findByEmail("user" + i + "@example.com").isPresent());
+        }
+        assertEquals(USERS, store.findAll().size());
+        new JdbcTemplate(added).execute("DROP ALL OBJECTS");
+    }
+    
+    @Test
+    void save_TwoStoresSharingShards_AllocateDistinctIds() {
+        // Arrange
+        ShardedUserStore other = newStore();
+        
+        // Act
+        for (int i = 0; i < USERS; i += 2) {
+            store.save(user(i));
+            other.save(user(i + 1));
+        }
+        
+        // Assert
+        List<User> users = store.findAll();
+        assertEquals(USERS, users.size());
+        assertEquals(USERS, users.stream().map(User::getId).distinct().count());
+    }
+    
+    @Test
+    void save_ConcurrentInsertsOfSameEmail_KeepOneUser() throws Exception {
+        // Arrange
+        List<Callable<User>> saves = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            saves.add(() -> store.save(user(1)));
+        }
+        
+        // Act
+        List<Long> ids = new ArrayList<>();
+        ExecutorService callers = Executors.newFixedThreadPool(saves.size());
+        try {
+            for (Future<User> saved : callers.invokeAll(saves)) {
+                ids.add(saved.get().getId());
+            }
+        } finally {
+            callers.shutdown();
+        }
+        
+        // Assert
+        assertEquals(1, store.findAll().size());
+        assertEquals(1, ids.stream().distinct().count());
+    }
+    
+    @Test
+    void save_EmailChange_MovesUserInsteadOfCopying() {
+        // Arrange
+        saveUsers();
+        User user = store.findByEmail("user5@example.com").orElseThrow();
+        
+        // Act
+        user.setEmail("renamed5@example.com");
+        store.save(user);
+        
+        // Assert
+        assertEquals(USERS, store.findAll().size());
+        assertTrue(store.findByEmail("user5@example.com").isEmpty());
+        User moved = store.findByEmail("renamed5@example.com").orElseThrow();
+        assertEquals(user.getId(), moved.getId());
+        assertEquals(1L, moved.getVersion());
+    }
+    
+    @Test
+    void findAfterId_ReturnsExactPageAcrossShards() {
+        // Arrange
+        saveUsers();
+        List<User> all = store.findAll();
+        
+        // Act
+        List<User> page = store.findAfterId(all.get(49).getId(), 0, 20);
+        
+        // Assert
+        assertEquals(all.subList(50, 70).stream().map(User::getId).toList(),
+                page.stream().map(User::getId).toList());
+    }
+    
+    @Test
+    void addShard_CopyFails_LeavesStoreUnchanged() {
+        // Arrange
+        saveUsers();
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:mem:broken;DB_CLOSE_DELAY=-1", "sa", "");
+        
+        // Act & Assert: the new shard has no users table, so the copy fails
+        assertThrows(RuntimeException.class, () -> store.addShard("shard-3", broken));
+        assertEquals(3, store.shardCount());
+        for (int i = 0; i < USERS; i++) {
+            assertTrue(store.findByEmail("user" + i + "@example.com").isPresent());
+        }
+        assertEquals(USERS, store.findAll().size());
+    }
+    
+    @Test
+    void findById_ReadsIdIndexThenOwningShardOnly() {
+        // Arrange
+        saveUsers();
+        User expected = store.findByEmail("user9@example.com").orElseThrow();
+        
+        // Act
+        User found = store.findById(expected.getId()).orElseThrow();
+        
+        // Assert
+        assertEquals("user9@example.com", found.getEmail());
+        int indexed = 0;
+        for (DataSource dataSource : shards.values()) {
+            indexed += new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM user_ids", Integer.class);
+        }
+        assertEquals(USERS, indexed);
+    }
+    
+    @Test
+    void deleteById_RemovesUserAndIndexEntry() {
+        // Arrange
+        saveUsers();
+        long id = store.findByEmail("user3@example.com").orElseThrow().getId();
+        
+        // Act & Assert
+        assertTrue(store.deleteById(id));
+        assertTrue(store.findById(id).isEmpty());
+        assertTrue(store.findByEmail("user3@example.com").isEmpty());
+        assertFalse(store.deleteById(id));
+    }
+    
+    @Test
+    void count_SumsUsersOnEveryShard() {
+        // Arrange
+        saveUsers();
+        
+        // Act & Assert
+        assertEquals(USERS, store.count());
+    }
+    
+    @Test
+    void streamAll_MergesShardCursorsInIdOrder() {
+        // Arrange
+        saveUsers();
+        
+        // Act
+        List<Long> ids;
+        try (Stream<User> users = store.streamAll()) {
+            ids = users.map(User::getId).toList();
+        }
+        
+        // Assert
+        assertEquals(store.findAll().stream().map(User::getId).toList(), ids);
+    }
+    
+    @Test
+    void streamKeys_ReturnsEveryUserOnce() {
+        // Arrange
+        saveUsers();
+        
+        // Act
+        long distinct;
+        try (Stream<UserKeyView> keys = store.streamKeys()) {
+            distinct = keys.map(UserKeyView::getEmailNormalized).distinct().count();
+        }
+        
+        // Assert
+        assertEquals(USERS, distinct);
+    }
+    
+    @Test
+    void findRecentlyUpdated_OffsetPageMatchesMergedOrder() {
+        // Arrange
+        saveUsers();
+        List<User> first = store.findRecentlyUpdated(0, 40);
+        
+        // Act
+        List<User> second = store.findRecentlyUpdated(20, 20);
+        
+        // Assert
+        assertEquals(first.subList(20, 40).stream().map(User::getId).toList(),
+                second.stream().map(User::getId).toList());
+    }
+    
+    @Test
+    void addShard_MovesIdIndexSoIdLookupsStillWork() {
+        // Arrange
+        saveUsers();
+        List<Long> ids = store.findAll().stream().map(User::getId).toList();
+        DataSource added = shard("shard_3");
+        
+        // Act
+        store.addShard("shard-3", added);
+        
+        // Assert
+        assertTrue(new JdbcTemplate(added).queryForObject("SELECT COUNT(*) FROM user_ids", Integer.class) > 0);
+        for (Long id : ids) {
+            assertTrue(store.findById(id).isPresent(), "User " + id + " should be found by ID");
+        }
+        new JdbcTemplate(added).execute("DROP ALL OBJECTS");
+    }
+    
+    private void saveUsers() {
+        for (int i = 0; i < USERS; i++) {
+            store.save(user(i));
+        }
+    }
+    
+    private ShardedUserStore newStore() {
+        return new ShardedUserStore(shards, 160,
+                new H2SequenceMaxValueIncrementer(shards.get("shard-0"), "users_id_seq"), executor);
+    }
+    
+    private static User user(int i) {
+        return User.builder()
+                .email("user" + i + "@example.com")
+                .name("User " + i)
+                .city("New York")
+                .build();
+    }
+    
+    private static int count(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+    }
+    
+    private static DataSource shard(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE users ("
+                + "id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL, email_normalized VARCHAR(255) NOT NULL UNIQUE,"
+                + " name VARCHAR(255) NOT NULL, phone VARCHAR(255), address VARCHAR(255), city VARCHAR(255),"
+                + " state VARCHAR(255), zip_code VARCHAR(255), country VARCHAR(255), version BIGINT NOT NULL,"
+                + " created_at TIMESTAMP, updated_at TIMESTAMP)");
+        new JdbcTemplate(dataSource).execute(
+                "CREATE TABLE user_ids (id BIGINT PRIMARY KEY, email_normalized VARCHAR(255) NOT NULL)");
+        return dataSource;
+    }
+}
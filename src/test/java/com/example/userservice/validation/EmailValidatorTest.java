@@ -0,0 +1,80 @@
+package com.example.userservice.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailValidatorTest {
+    
+    /**
+     * The regex previously used by UserService; the validator must agree with it.
+     */
+    private static final Pattern REFERENCE =
+            Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    
+    private static final String ALPHABET = "aZ09+_.-@.-. \t\n!\u00e9";
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"test@example.com", "John.Doe+tag@mail.example.co", "a@b.cd", "_@-.xy", "a@..zz"})
+    void isValid_ValidEmails_ReturnsTrue(String email) {
+        assertTrue(EmailValidator.isValid(email));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "invalid-email", "@example.com", "test@", "test@.com", "test@example.c",
+            "test@example.c0m", "a@b@c.com", "test@exa mple.com", "test@example.com\n", " test@example.com"})
+    void isValid_InvalidEmails_ReturnsFalse(String email) {
+        assertFalse(EmailValidator.isValid(email));
+    }
+    
+    @Test
+    void isValid_Null_ReturnsFalse() {
+        assertFalse(EmailValidator.isValid(null));
+    }
+    
+    @Test
+    void isValid_LongerThanMaxLength_ReturnsFalse() {
+        String email = "a".repeat(EmailValidator.MAX_LENGTH - "@example.com".length() + 1) + "@example.com";
+        
+        assertTrue(REFERENCE.matcher(email).matches());
+        assertFalse(EmailValidator.isValid(email));
+    }
+    
+    @Test
+    void isValid_RandomInput_AgreesWithRegex() {
+        Random random = new Random(20240101L);
+        
+        for (int i = 0; i < 200_000; i++) {
+            String candidate = i % 2 == 0 ? randomString(random) : mutatedEmail(random);
+            assertEquals(REFERENCE.matcher(candidate).matches(), EmailValidator.isValid(candidate),
+                    () -> "Disagreement on: [" + candidate + "]");
+        }
+    }
+    
+    private static String randomString(Random random) {
+        int length = random.nextInt(16);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+    
+    private static String mutatedEmail(Random random) {
+        StringBuilder sb = new StringBuilder(randomString(random))
+                .append('@')
+                .append(randomString(random))
+                .append('.')
+                .append("abcdefghij", 0, random.nextInt(5));
+        // Occasionally corrupt one character
+        if (sb.length() > 0 && random.nextInt(4) == 0) {
+            sb.setCharAt(random.nextInt(sb.length()), ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.userservice.warmup;
+
+import com.example.userservice.cache.EmailBloomFilter;
+import com.example.userservice.cache.LookupIndexInitializer;
+import com.example.userservice.cache.SingleFlight;
+import com.example.userservice.cache.UserEmailCache;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.hotkey.HotKeyProperties;
+import com.example.userservice.hotkey.HotKeyTracker;
+import com.example.userservice.model.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmUpTest {
+    
+    @Mock
+    private LookupIndexInitializer lookupIndexInitializer;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private UserService userService;
+    
+    @Mock
+    private UserServiceImpl userServiceImpl;
+    
+    private WarmUpProperties properties;
+    
+    private UserEmailCache userEmailCache;
+    
+    private HotKeyTracker<String> emailHotKeys;
+    
+    private EmailBloomFilter emailBloomFilter;
+    
+    private SingleFlight<String, Optional<User>> emailLookupFlight;
+    
+    private MeterRegistry meterRegistry;
+    
+    private StartupWarmUp warmUp;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new WarmUpProperties();
+        properties.setIterations(10);
+        properties.setNameSearches(3);
+        userEmailCache = new UserEmailCache(100, Duration.ofMinutes(1));
+        emailHotKeys = new HotKeyTracker<>("email", new HotKeyProperties());
+        emailBloomFilter = new EmailBloomFilter(1000, 0.01);
+        emailLookupFlight = new SingleFlight<>("email", Duration.ofSeconds(1));
+        meterRegistry = new SimpleMeterRegistry();
+        warmUp = new StartupWarmUp(properties, lookupIndexInitializer, List.of(), userRepository,
+                userEmailCache, userService, userServiceImpl, emailHotKeys,
+                emailBloomFilter, List.of(emailLookupFlight), meterRegistry);
+    }
+    
+    @Test
+    void run_RecentUsers_LookedUpBeforeCached() {
+        // Arrange
+        User user = User.builder().id(1L).email("john.doe@example.com").name("John Doe").build();
+        when(userRepository.findRecentlyUpdated(any())).thenReturn(List.of(user));
+        when(userService.getUserByEmail("john.doe@example.com")).thenAnswer(invocation -> {
+            assertTrue(userEmailCache.get("john.doe@example.com").isEmpty(), "lookup should miss the email cache");
+            return user;
+        });
+        emailHotKeys.record("john.doe@example.com");
+        
+        // Act
+        warmUp.run(null);
+        
+        // Assert
+        verify(lookupIndexInitializer).initialize();
+        assertTrue(userEmailCache.get("john.doe@example.com").isPresent());
+        verify(userService, times(5)).getUserByEmail("john.doe@example.com");
+        verify(userService, times(10)).getUserByEmail(anyString());
+        verify(userServiceImpl, times(3)).findUsersByName("John Doe");
+        assertTrue(emailHotKeys.top(10).isEmpty());
+    }
+    
+    @Test
+    void run_DiscardsWarmUpMetrics() {
+        // Arrange
+        when(userRepository.findRecentlyUpdated(any())).thenReturn(List.of());
+        when(userService.getUserByEmail(anyString())).thenAnswer(invocation -> {
+            meterRegistry.timer(UserService.SERVICE_TIMER, "method", "getUserByEmail").record(Duration.ofMillis(1));
+            return emailLookupFlight.execute(invocation.getArgument(0), Optional::empty);
+        });
+        
+        // Act
+        warmUp.run(null);
+        
+        // Assert
+        assertNull(meterRegistry.find(UserService.SERVICE_TIMER).timer());
+        assertEquals(0, emailLookupFlight.getCalls());
+    }
+    
+    @Test
+    void run_NoUsers_ExercisesNotFoundPath() {
+        // Arrange
+        when(userRepository.findRecentlyUpdated(any())).thenReturn(List.of());
+        when(userService.getUserByEmail(anyString())).thenThrow(new UserNotFoundException("not found"));
+        
+        // Act
+        warmUp.run(null);
+        
+        // Assert
+        verify(userService, times(10)).getUserByEmail(anyString());
+        verify(userServiceImpl, times(3)).findUsersByName(anyString());
+    }
+    
+    @Test
+    void run_Disabled_OnlyLoadsIndexes() {
+        // Arrange
+        properties.setEnabled(false);
+        
+        // Act
+        warmUp.run(null);
+        
+        // Assert
+        verify(lookupIndexInitializer).initialize();
+        verifyNoInteractions(userRepository, userService, userServiceImpl);
+    }
+}